@@ -3,10 +3,13 @@ package com.amberclient;
 import com.amberclient.modules.world.MacroRecorder.MacroRecordingSystem;
 import com.amberclient.screens.HudRenderer;
 import com.amberclient.screens.ClickGUI;
+import com.amberclient.screens.ProfilerOverlay;
 import com.amberclient.commands.AmberCommand;
 import com.amberclient.utils.input.keybinds.KeybindsManager;
 import com.amberclient.utils.module.Module;
 import com.amberclient.utils.module.ModuleManager;
+import com.amberclient.utils.module.ModuleProfiler;
+import com.amberclient.utils.module.TickPhase;
 import com.amberclient.modules.minigames.murdererfinder.config.ConfigManager;
 import com.amberclient.utils.discord.DiscordManager;
 import com.amberclient.utils.minecraft.MinecraftUtils;
@@ -43,6 +46,12 @@ public class AmberClient implements ModInitializer {
                             hudRenderer.onHudRender(context, tickCounter);
                         }
                 );
+                ProfilerOverlay profilerOverlay = new ProfilerOverlay();
+                layeredDrawer.attachLayerAfter(
+                        IdentifiedLayer.EXPERIENCE_LEVEL,
+                        Identifier.of(MOD_ID, "profiler_overlay"),
+                        profilerOverlay::onHudRender
+                );
             });
             hudLayerRegistered = true;
         }
@@ -53,7 +62,9 @@ public class AmberClient implements ModInitializer {
             ModuleManager moduleManager = ModuleManager.getInstance();
             for (Module module : moduleManager.getEnabledModules()) {
                 assert stack != null;
+                long start = ModuleProfiler.begin();
                 module.render(stack);
+                ModuleProfiler.end(module.getName(), ModuleProfiler.Phase.RENDER, start);
             }
         });
 
@@ -76,7 +87,7 @@ public class AmberClient implements ModInitializer {
         if (KeybindsManager.INSTANCE.getOpenClickGui().wasPressed() && client.currentScreen == null)
             client.setScreen(new ClickGUI());
 
-        ModuleManager.getInstance().onTick();
+        ModuleManager.getInstance().onTick(TickPhase.POST);
         ModuleManager.getInstance().handleKeyInputs();
 
         MacroRecordingSystem.getInstance().tick();
@@ -1,6 +1,8 @@
 package com.amberclient.commands;
 
 import com.amberclient.commands.impl.DummyCmd;
+import com.amberclient.commands.impl.EventsCmd;
+import com.amberclient.commands.impl.ProfilerCmd;
 import com.amberclient.commands.impl.TopCmd;
 import com.amberclient.commands.impl.BindCmd;
 import com.amberclient.commands.impl.UnbindCmd;
@@ -60,6 +62,37 @@ public class AmberCommand {
                                             .executes(UnbindCmd::executeClient)
                                     )
                             )
+                            .then(ClientCommandManager.literal("events")
+                                    .then(ClientCommandManager.literal("stats")
+                                            .executes(EventsCmd::executeStats)
+                                    )
+                                    .then(ClientCommandManager.literal("enable")
+                                            .executes(EventsCmd::executeEnable)
+                                    )
+                                    .then(ClientCommandManager.literal("disable")
+                                            .executes(EventsCmd::executeDisable)
+                                    )
+                                    .then(ClientCommandManager.literal("reset")
+                                            .executes(EventsCmd::executeReset)
+                                    )
+                            )
+                            .then(ClientCommandManager.literal("profiler")
+                                    .then(ClientCommandManager.literal("enable")
+                                            .executes(ProfilerCmd::executeEnable)
+                                    )
+                                    .then(ClientCommandManager.literal("disable")
+                                            .executes(ProfilerCmd::executeDisable)
+                                    )
+                                    .then(ClientCommandManager.literal("overlay")
+                                            .executes(ProfilerCmd::executeOverlay)
+                                    )
+                                    .then(ClientCommandManager.literal("reset")
+                                            .executes(ProfilerCmd::executeReset)
+                                    )
+                                    .then(ClientCommandManager.literal("export")
+                                            .executes(ProfilerCmd::executeExport)
+                                    )
+                            )
             );
         });
     }
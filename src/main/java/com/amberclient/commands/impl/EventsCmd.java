@@ -0,0 +1,75 @@
+package com.amberclient.commands.impl;
+
+import com.amberclient.events.core.EventManager;
+import com.amberclient.events.core.ListenerStats;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class EventsCmd {
+    private static final int MAX_LINES = 10;
+
+    public static int executeStats(CommandContext<FabricClientCommandSource> ctx) {
+        FabricClientCommandSource source = ctx.getSource();
+        EventManager eventManager = EventManager.getInstance();
+
+        if (!eventManager.isMetricsEnabled()) {
+            source.sendFeedback(Text.literal("§4[§cAmberClient§4] §cEvent metrics are disabled. Use §4/amber events enable§c first."));
+            return 0;
+        }
+
+        source.sendFeedback(Text.literal("§4[§cAmberClient§4] §cEvent types (by total time):"));
+        printStats(source, eventManager.getEventStats());
+
+        source.sendFeedback(Text.literal("§4[§cAmberClient§4] §cListeners (by total time):"));
+        printStats(source, eventManager.getListenerStats());
+
+        source.sendFeedback(Text.literal("§7Async queue: " + eventManager.getAsyncChannel().getPending() + "/"
+                + eventManager.getAsyncChannel().getCapacity() + ", dropped: " + eventManager.getAsyncChannel().getDropped()));
+        return 1;
+    }
+
+    public static int executeEnable(CommandContext<FabricClientCommandSource> ctx) {
+        EventManager.getInstance().setMetricsEnabled(true);
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cEvent metrics enabled."));
+        return 1;
+    }
+
+    public static int executeDisable(CommandContext<FabricClientCommandSource> ctx) {
+        EventManager.getInstance().setMetricsEnabled(false);
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cEvent metrics disabled."));
+        return 1;
+    }
+
+    public static int executeReset(CommandContext<FabricClientCommandSource> ctx) {
+        EventManager.getInstance().resetMetrics();
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cEvent metrics reset."));
+        return 1;
+    }
+
+    private static void printStats(FabricClientCommandSource source, List<ListenerStats> stats) {
+        List<ListenerStats> sorted = stats.stream()
+                .filter(s -> s.getInvocations() > 0)
+                .sorted(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed())
+                .limit(MAX_LINES)
+                .toList();
+
+        if (sorted.isEmpty()) {
+            source.sendFeedback(Text.literal("§7  (no invocations recorded)"));
+            return;
+        }
+
+        for (ListenerStats s : sorted) {
+            source.sendFeedback(Text.literal(String.format("§7  %s §f%d calls, %.2f ms total, p50 %.1f µs, p99 %.1f µs, %d errors",
+                    s.getName(),
+                    s.getInvocations(),
+                    s.getTotalNanos() / 1_000_000.0,
+                    s.getPercentileNanos(50) / 1_000.0,
+                    s.getPercentileNanos(99) / 1_000.0,
+                    s.getExceptions())));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.amberclient.commands.impl;
+
+import com.amberclient.utils.module.ModuleProfiler;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class ProfilerCmd {
+    private static final String PROFILES_FOLDER = "amberclient/profiles";
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    public static int executeEnable(CommandContext<FabricClientCommandSource> ctx) {
+        ModuleProfiler.setEnabled(true);
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cModule profiler enabled."));
+        return 1;
+    }
+
+    public static int executeDisable(CommandContext<FabricClientCommandSource> ctx) {
+        ModuleProfiler.setEnabled(false);
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cModule profiler disabled."));
+        return 1;
+    }
+
+    public static int executeOverlay(CommandContext<FabricClientCommandSource> ctx) {
+        ModuleProfiler profiler = ModuleProfiler.getInstance();
+        profiler.setOverlayVisible(!profiler.isOverlayVisible());
+
+        if (profiler.isOverlayVisible() && !ModuleProfiler.isEnabled()) {
+            ModuleProfiler.setEnabled(true);
+        }
+
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cProfiler overlay "
+                + (profiler.isOverlayVisible() ? "shown." : "hidden.")));
+        return 1;
+    }
+
+    public static int executeReset(CommandContext<FabricClientCommandSource> ctx) {
+        ModuleProfiler.getInstance().reset();
+        ctx.getSource().sendFeedback(Text.literal("§4[§cAmberClient§4] §cProfiler samples reset."));
+        return 1;
+    }
+
+    public static int executeExport(CommandContext<FabricClientCommandSource> ctx) {
+        FabricClientCommandSource source = ctx.getSource();
+
+        if (!ModuleProfiler.isEnabled()) {
+            source.sendFeedback(Text.literal("§4[§cAmberClient§4] §cThe module profiler is disabled. Use §4/amber profiler enable§c first."));
+            return 0;
+        }
+
+        Path file = MinecraftClient.getInstance().runDirectory.toPath()
+                .resolve(PROFILES_FOLDER)
+                .resolve("profile_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv");
+
+        try {
+            ModuleProfiler.getInstance().exportCsv(file);
+        } catch (IOException e) {
+            source.sendError(Text.literal("§4[§cAmberClient§4] §cFailed to export profile: " + e.getMessage()));
+            return 0;
+        }
+
+        source.sendFeedback(Text.literal("§4[§cAmberClient§4] §cProfile exported to §4" + file.getFileName()));
+        return 1;
+    }
+}
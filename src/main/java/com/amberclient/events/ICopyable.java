@@ -0,0 +1,10 @@
+package com.amberclient.events;
+
+public interface ICopyable {
+    /**
+     * Creates a detached copy of this event, used when it is handed to an async listener
+     * after the original instance went back to its pool.
+     * @return The copy
+     */
+    Object copy();
+}
@@ -0,0 +1,146 @@
+package com.amberclient.events.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer feeding async {@link EventListener}s.
+ *
+ * Any thread may offer events (multi-producer); a single daemon worker drains them in order
+ * and invokes the listeners, so slow listeners never stall the network or render thread.
+ */
+public final class AsyncEventChannel {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final EventInvoker[] invokers;
+    private final Object[] events;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private int head;
+    private int size;
+    private volatile Thread worker;
+
+    public AsyncEventChannel(int capacity) {
+        this.invokers = new EventInvoker[capacity];
+        this.events = new Object[capacity];
+    }
+
+    /**
+     * Queues {@code event} for {@code invoker}, applying {@code policy} if the buffer is full.
+     */
+    public void offer(EventInvoker invoker, Object event, OverflowPolicy policy) {
+        ensureStarted();
+
+        lock.lock();
+        try {
+            while (size == invokers.length) {
+                if (policy == OverflowPolicy.BLOCK && Thread.currentThread() != worker) {
+                    try {
+                        notFull.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                } else if (policy == OverflowPolicy.COALESCE && replacePending(invoker, event)) {
+                    return;
+                } else {
+                    dropOldest();
+                }
+            }
+
+            int tail = (head + size) % invokers.length;
+            invokers[tail] = invoker;
+            events[tail] = event;
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return invokers.length;
+    }
+
+    public int getPending() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private boolean replacePending(EventInvoker invoker, Object event) {
+        for (int i = size - 1; i >= 0; i--) {
+            int index = (head + i) % invokers.length;
+            if (invokers[index] == invoker && events[index].getClass() == event.getClass()) {
+                events[index] = event;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void dropOldest() {
+        invokers[head] = null;
+        events[head] = null;
+        head = (head + 1) % invokers.length;
+        size--;
+        dropped.incrementAndGet();
+    }
+
+    private void ensureStarted() {
+        if (worker != null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (worker == null) {
+                Thread thread = new Thread(this::drain, "Amber Event Worker");
+                thread.setDaemon(true);
+                thread.start();
+                worker = thread;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            EventInvoker invoker;
+            Object event;
+
+            lock.lock();
+            try {
+                while (size == 0) {
+                    notEmpty.awaitUninterruptibly();
+                }
+
+                invoker = invokers[head];
+                event = events[head];
+                invokers[head] = null;
+                events[head] = null;
+                head = (head + 1) % invokers.length;
+                size--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                invoker.invoke(event);
+            } catch (Exception e) {
+                System.err.println("Error invoking async " + event.getClass().getSimpleName() + " event handler: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.amberclient.events.core;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.reflect.Method;
+
+/**
+ * Direct call site for a single {@link EventListener} method.
+ *
+ * Invokers are generated when the owning object is registered, through
+ * {@link LambdaMetafactory}, so dispatching an event costs about as much as an
+ * interface call instead of a {@link Method#invoke} with argument boxing.
+ */
+@FunctionalInterface
+public interface EventInvoker {
+    /**
+     * Calls the bound listener method.
+     * @param event Event passed to the method
+     */
+    void invoke(Object event);
+
+    /**
+     * Binds an annotated method of {@code owner} to a generated invoker.
+     * Falls back to a reflective invoker if the method can't be bound directly.
+     */
+    static EventInvoker of(Object owner, Method method) {
+        return InvokerFactory.bind(owner, method);
+    }
+}
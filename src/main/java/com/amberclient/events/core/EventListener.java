@@ -29,4 +29,18 @@ public @interface EventListener {
      * Default is false.
      */
     boolean receiveCancelled() default false;
-}
\ No newline at end of file
+
+    /**
+     * Whether this listener should run on the async event worker instead of the posting thread.
+     * Async listeners receive a copy of the event and can't cancel or modify the original one;
+     * use {@link EventManager#runOnMainThread} to act on the game from them.
+     * Default is false.
+     */
+    boolean async() default false;
+
+    /**
+     * What to do when the async channel is full (only used if {@link #async()} is true).
+     * Default is {@link OverflowPolicy#DROP_OLDEST}.
+     */
+    OverflowPolicy overflow() default OverflowPolicy.DROP_OLDEST;
+}
@@ -1,26 +1,73 @@
 package com.amberclient.events.core;
 
+import com.amberclient.events.ICancellable;
+import com.amberclient.events.network.PacketEvent;
 import com.amberclient.events.network.PacketReceiveListener;
 import com.amberclient.events.player.*;
-import com.amberclient.events.network.PacketEvent;
-import com.amberclient.events.player.SendMovementPacketsEvent;
+import com.amberclient.events.world.seed.SeedChangedEvent;
+import com.amberclient.events.world.seed.SeedChangedListener;
+import com.amberclient.events.ICopyable;
+import com.amberclient.utils.module.Module;
+import com.amberclient.utils.module.ModuleProfiler;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.network.packet.Packet;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
 
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single event bus of the client, keyed by event class.
+ *
+ * Subscriptions are stored per declared event type. The first time a concrete class is posted,
+ * the subscriptions of that class and all of its supertypes are flattened into a priority-sorted
+ * dispatch array, which is kept up to date on every (un)registration. Posting is therefore one map
+ * lookup plus an array walk, and never visits listeners of unrelated event types.
+ *
+ * Listeners declared with {@code async = true} are not called on the posting thread: the event
+ * (or its {@link ICopyable#copy() copy}) is queued on the {@link AsyncEventChannel} instead.
+ */
 public class EventManager {
     private static final EventManager INSTANCE = new EventManager();
-    private final List<PreMotionListener> preMotionListeners = new ArrayList<>();
-    private final List<PostMotionListener> postMotionListeners = new ArrayList<>();
-    private final List<PacketReceiveListener> packetReceiveListeners = new ArrayList<>();
-    private final List<PreVelocityListener> preVelocityListeners = new ArrayList<>();
-    private final List<PostVelocityListener> postVelocityListeners = new ArrayList<>();
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    // Annotated listener methods of a class, scanned once per class
+    private static final ClassValue<List<Method>> LISTENER_METHODS = new ClassValue<>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type) {
+            List<Method> methods = new ArrayList<>();
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(EventListener.class)) {
+                    continue;
+                }
 
-    private final List<PacketSendListener> packetSendListeners = new ArrayList<>();
-    private final List<SendMovementPacketsListener> sendMovementPacketsListeners = new ArrayList<>();
+                if (method.getParameterCount() != 1) {
+                    System.err.println("Ignoring event listener " + method + ": it must take exactly one event parameter");
+                    continue;
+                }
+
+                methods.add(method);
+            }
+            return List.copyOf(methods);
+        }
+    };
+
+    // Declared event type -> subscribers, guarded by this
+    private final Map<Class<?>, ListenerList<Subscriber>> subscriptions = new HashMap<>();
+    // Posted event class -> subscribers of that class and its supertypes
+    private final Map<Class<?>, Subscriber[]> dispatchTable = new ConcurrentHashMap<>();
 
-    private final List<Object> registeredObjects = new ArrayList<>();
+    // Registered object -> its annotated-method subscribers, guarded by this
+    private final Map<Object, List<Subscriber>> registeredObjects = new IdentityHashMap<>();
+    private final AsyncEventChannel asyncChannel = new AsyncEventChannel(AsyncEventChannel.DEFAULT_CAPACITY);
+
+    private final Map<Class<?>, ListenerStats> eventStats = new ConcurrentHashMap<>();
+    private volatile boolean metricsEnabled = false;
+    // metricsEnabled || ModuleProfiler.isEnabled(), kept in one field so an uninstrumented post reads a single flag
+    private volatile boolean instrumented = false;
 
     public EventManager() {
     }
@@ -29,274 +76,377 @@ public class EventManager {
         return INSTANCE;
     }
 
-    public void register(Object obj) {
-        if (registeredObjects.contains(obj)) {
+    /**
+     * Registers every {@link EventListener} method declared by {@code obj}.
+     * Listener methods must take exactly one parameter, the event type they listen to.
+     */
+    public synchronized void register(Object obj) {
+        if (registeredObjects.containsKey(obj)) {
             return;
         }
 
-        registeredObjects.add(obj);
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (Method method : LISTENER_METHODS.get(obj.getClass())) {
+            EventListener annotation = method.getAnnotation(EventListener.class);
+            Class<?> eventType = method.getParameterTypes()[0];
+            ListenerStats stats = new ListenerStats(displayName(obj.getClass()) + "#" + method.getName()
+                    + "(" + displayName(eventType) + ")");
+
+            Subscriber subscriber = new Subscriber(obj, null, eventType, EventInvoker.of(obj, method), stats,
+                    annotation.priority(), annotation.receiveCancelled(), annotation.async(), annotation.overflow());
+            subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+
+        registeredObjects.put(obj, subscribers);
+    }
 
-        Method[] methods = obj.getClass().getDeclaredMethods();
-        List<Method> eventMethods = new ArrayList<>();
+    /**
+     * Removes the listeners of {@code obj}. Only the event types it subscribed to are touched.
+     */
+    public synchronized void unregister(Object obj) {
+        List<Subscriber> subscribers = registeredObjects.remove(obj);
+        if (subscribers == null) {
+            return;
+        }
 
-        for (Method method : methods) {
-            if (method.isAnnotationPresent(EventListener.class)) {
-                method.setAccessible(true);
-                eventMethods.add(method);
+        Set<Class<?>> changedTypes = new HashSet<>();
+        for (Subscriber subscriber : subscribers) {
+            ListenerList<Subscriber> listeners = subscriptions.get(subscriber.eventType());
+            if (listeners != null) {
+                listeners.remove(subscriber);
+                changedTypes.add(subscriber.eventType());
             }
         }
 
-        eventMethods.sort((m1, m2) -> {
-            int priority1 = m1.getAnnotation(EventListener.class).priority();
-            int priority2 = m2.getAnnotation(EventListener.class).priority();
-            return Integer.compare(priority2, priority1);
-        });
-
-        for (Method method : eventMethods) {
-            registerMethodAsListener(obj, method);
+        for (Class<?> type : changedTypes) {
+            rebuildDispatch(type);
         }
     }
 
-    public void unregister(Object obj) {
-        if (!registeredObjects.contains(obj)) {
-            return;
+    public synchronized boolean isRegistered(Object obj) {
+        return registeredObjects.containsKey(obj);
+    }
+
+    /**
+     * Whether posting an instance of {@code eventClass} would reach any listener.
+     * Callers on hot paths use this to skip building the event altogether.
+     */
+    public boolean hasListeners(Class<?> eventClass) {
+        Subscriber[] subscribers = dispatchTable.get(eventClass);
+        if (subscribers == null) {
+            subscribers = resolve(eventClass);
         }
+        return subscribers.length > 0;
+    }
 
-        registeredObjects.remove(obj);
+    /**
+     * Subscribes an implementation of one of the listener interfaces
+     * ({@link PreMotionListener}, {@link PacketReceiveListener}, ...) to the matching event.
+     */
+    public synchronized void add(Class<?> type, Object listener) {
+        Subscriber subscriber = adapt(type, listener);
+        if (subscriber != null) {
+            subscribe(subscriber);
+        }
+    }
 
-        preMotionListeners.removeIf(listener -> isFromObject(listener, obj));
-        postMotionListeners.removeIf(listener -> isFromObject(listener, obj));
-        packetReceiveListeners.removeIf(listener -> isFromObject(listener, obj));
-        preVelocityListeners.removeIf(listener -> isFromObject(listener, obj));
-        postVelocityListeners.removeIf(listener -> isFromObject(listener, obj));
-        packetSendListeners.removeIf(listener -> isFromObject(listener, obj));
-        sendMovementPacketsListeners.removeIf(listener -> isFromObject(listener, obj));
+    public synchronized void remove(Class<?> type, Object listener) {
+        unsubscribeIf(subscriber -> subscriber.owner() == listener && subscriber.listenerType() == type);
     }
 
-    private boolean isFromObject(Object listener, Object obj) {
-        return listener instanceof MethodListener && ((MethodListener) listener).owner() == obj;
+    /**
+     * Dispatches {@code event} to the listeners of its class and of all its supertypes,
+     * highest priority first. Cancelled {@link ICancellable} events are only delivered to
+     * listeners declaring {@code receiveCancelled}.
+     * @return The posted event
+     */
+    public <T> T post(T event) {
+        Subscriber[] subscribers = dispatchTable.get(event.getClass());
+        if (subscribers == null) {
+            subscribers = resolve(event.getClass());
+        }
+
+        if (subscribers.length == 0) {
+            return event;
+        }
+
+        if (instrumented) {
+            dispatchTimed(event, subscribers);
+        } else {
+            dispatch(event, subscribers);
+        }
+
+        return event;
     }
 
-    private void registerMethodAsListener(Object obj, Method method) {
-        Class<?>[] paramTypes = method.getParameterTypes();
-        EventListener annotation = method.getAnnotation(EventListener.class);
+    private void dispatch(Object event, Subscriber[] subscribers) {
+        ICancellable cancellable = event instanceof ICancellable c ? c : null;
+        Object detached = null;
 
-        if (paramTypes.length == 0) {
-            String methodName = method.getName();
-            if (methodName.contains("PreMotion") || methodName.contains("preMotion")) {
-                preMotionListeners.add(new MethodListener(obj, method, annotation));
-            } else if (methodName.contains("PostMotion") || methodName.contains("postMotion")) {
-                postMotionListeners.add(new MethodListener(obj, method, annotation));
+        for (Subscriber subscriber : subscribers) {
+            if (cancellable != null && cancellable.isCancelled() && !subscriber.receiveCancelled()) {
+                continue;
             }
-        } else if (paramTypes.length == 1) {
-            Class<?> paramType = paramTypes[0];
-
-            if (Packet.class.isAssignableFrom(paramType)) {
-                packetReceiveListeners.add(new MethodListener(obj, method, annotation));
-            } else if (paramType.getSimpleName().contains("PreVelocity")) {
-                preVelocityListeners.add(new MethodListener(obj, method, annotation));
-            } else if (paramType.getSimpleName().contains("PostVelocity")) {
-                postVelocityListeners.add(new MethodListener(obj, method, annotation));
+
+            if (subscriber.async()) {
+                if (detached == null) {
+                    detached = event instanceof ICopyable copyable ? copyable.copy() : event;
+                }
+                asyncChannel.offer(subscriber.invoker(), detached, subscriber.overflow());
+                continue;
             }
-            else if (paramType == PacketEvent.Send.class || paramType.getSimpleName().contains("PacketEvent")) {
-                packetSendListeners.add(new MethodListener(obj, method, annotation));
-            } else if (paramType == SendMovementPacketsEvent.Pre.class || paramType.getSimpleName().contains("SendMovementPackets")) {
-                sendMovementPacketsListeners.add(new MethodListener(obj, method, annotation));
+
+            try {
+                subscriber.invoker().invoke(event);
+            } catch (Exception e) {
+                System.err.println("Error invoking " + event.getClass().getSimpleName() + " event handler: " + e.getMessage());
             }
         }
     }
 
-    public void add(Class<?> type, Object listener) {
-        if (type == PreMotionListener.class && listener instanceof PreMotionListener) {
-            preMotionListeners.add((PreMotionListener) listener);
-        } else if (type == PostMotionListener.class && listener instanceof PostMotionListener) {
-            postMotionListeners.add((PostMotionListener) listener);
-        } else if (type == PacketReceiveListener.class && listener instanceof PacketReceiveListener) {
-            packetReceiveListeners.add((PacketReceiveListener) listener);
-        } else if (type == PreVelocityListener.class && listener instanceof PreVelocityListener) {
-            preVelocityListeners.add((PreVelocityListener) listener);
-        } else if (type == PostVelocityListener.class && listener instanceof PostVelocityListener) {
-            postVelocityListeners.add((PostVelocityListener) listener);
-        } else if (type == PacketSendListener.class && listener instanceof PacketSendListener) {
-            packetSendListeners.add((PacketSendListener) listener);
-        } else if (type == SendMovementPacketsListener.class && listener instanceof SendMovementPacketsListener) {
-            sendMovementPacketsListeners.add((SendMovementPacketsListener) listener);
+    private void dispatchTimed(Object event, Subscriber[] subscribers) {
+        ICancellable cancellable = event instanceof ICancellable c ? c : null;
+        Object detached = null;
+        boolean metrics = metricsEnabled;
+        boolean profiling = ModuleProfiler.isEnabled();
+        ModuleProfiler.Phase phase = event instanceof Packet<?> || event instanceof PacketEvent
+                ? ModuleProfiler.Phase.PACKET : ModuleProfiler.Phase.TICK;
+        long eventStart = System.nanoTime();
+
+        for (Subscriber subscriber : subscribers) {
+            if (cancellable != null && cancellable.isCancelled() && !subscriber.receiveCancelled()) {
+                continue;
+            }
+
+            if (subscriber.async()) {
+                if (detached == null) {
+                    detached = event instanceof ICopyable copyable ? copyable.copy() : event;
+                }
+                asyncChannel.offer(subscriber.invoker(), detached, subscriber.overflow());
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                subscriber.invoker().invoke(event);
+            } catch (Exception e) {
+                if (metrics) subscriber.stats().recordException();
+                System.err.println("Error invoking " + event.getClass().getSimpleName() + " event handler: " + e.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (metrics) subscriber.stats().record(elapsed);
+            if (profiling && subscriber.owner() instanceof Module module) {
+                ModuleProfiler.getInstance().record(module.getName(), phase, elapsed);
+            }
         }
-    }
 
-    public void remove(Class<?> type, Object listener) {
-        if (type == PreMotionListener.class) {
-            preMotionListeners.remove(listener);
-        } else if (type == PostMotionListener.class) {
-            postMotionListeners.remove(listener);
-        } else if (type == PacketReceiveListener.class) {
-            packetReceiveListeners.remove(listener);
-        } else if (type == PreVelocityListener.class) {
-            preVelocityListeners.remove(listener);
-        } else if (type == PostVelocityListener.class) {
-            postVelocityListeners.remove(listener);
-        } else if (type == PacketSendListener.class) {
-            packetSendListeners.remove(listener);
-        } else if (type == SendMovementPacketsListener.class) {
-            sendMovementPacketsListeners.remove(listener);
+        if (metrics) {
+            eventStats.computeIfAbsent(event.getClass(), type -> new ListenerStats(displayName(type)))
+                    .record(System.nanoTime() - eventStart);
         }
     }
 
-    public void firePreMotion() {
-        for (PreMotionListener listener : new ArrayList<>(preMotionListeners)) {
-            listener.onPreMotion();
-        }
+    /**
+     * Enables or disables per-listener and per-event metrics. While disabled,
+     * posting only pays one extra branch.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metricsEnabled = enabled;
+        updateInstrumented();
     }
 
-    public void firePostMotion() {
-        for (PostMotionListener listener : new ArrayList<>(postMotionListeners)) {
-            listener.onPostMotion();
-        }
+    /**
+     * Refreshes whether posts are timed. Called whenever metrics or the {@link ModuleProfiler} are toggled.
+     */
+    public void updateInstrumented() {
+        instrumented = metricsEnabled || ModuleProfiler.isEnabled();
     }
 
-    public void firePacketReceive(Packet<?> packet) {
-        for (PacketReceiveListener listener : new ArrayList<>(packetReceiveListeners)) {
-            listener.onPacketReceive(packet);
-        }
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
     }
 
-    public void firePreVelocity(PreVelocityEvent event) {
-        for (PreVelocityListener listener : new ArrayList<>(preVelocityListeners)) {
-            listener.onPreVelocity(event);
+    /**
+     * @return Metrics of every currently subscribed listener
+     */
+    public synchronized List<ListenerStats> getListenerStats() {
+        List<ListenerStats> stats = new ArrayList<>();
+        for (ListenerList<Subscriber> listeners : subscriptions.values()) {
+            for (Subscriber subscriber : listeners.get()) {
+                stats.add(subscriber.stats());
+            }
         }
+        return stats;
     }
 
-    public void firePostVelocity(PostVelocityEvent event) {
-        for (PostVelocityListener listener : new ArrayList<>(postVelocityListeners)) {
-            listener.onPostVelocity(event);
-        }
+    /**
+     * @return Metrics of every event type posted while metrics were enabled
+     */
+    public List<ListenerStats> getEventStats() {
+        return new ArrayList<>(eventStats.values());
     }
 
-    public void firePacketSend(PacketEvent.Send event) {
-        for (PacketSendListener listener : new ArrayList<>(packetSendListeners)) {
-            if (event.isCancelled() && listener instanceof MethodListener methodListener) {
-                if (!methodListener.receiveCancelled()) {
-                    continue;
-                }
-            }
-            listener.onPacketSend(event);
+    public synchronized void resetMetrics() {
+        for (ListenerStats stats : getListenerStats()) {
+            stats.reset();
         }
+        eventStats.clear();
     }
 
-    public void fireSendMovementPackets(SendMovementPacketsEvent.Pre event) {
-        for (SendMovementPacketsListener listener : new ArrayList<>(sendMovementPacketsListeners)) {
-            listener.onSendMovementPackets(event);
-        }
+    public AsyncEventChannel getAsyncChannel() {
+        return asyncChannel;
     }
 
-    public interface PacketSendListener {
-        void onPacketSend(PacketEvent.Send event);
+    /**
+     * Hands {@code task} over to the client thread, e.g. to act on the result of an async listener.
+     */
+    public static void runOnMainThread(Runnable task) {
+        MinecraftClient.getInstance().execute(task);
     }
 
-    public interface SendMovementPacketsListener {
-        void onSendMovementPackets(SendMovementPacketsEvent.Pre event);
+    /**
+     * Computes a value on the client thread.
+     * @return A future completed with the value once the client thread ran {@code task}
+     */
+    public static <T> CompletableFuture<T> callOnMainThread(Supplier<T> task) {
+        return MinecraftClient.getInstance().submit(task);
     }
 
-    private record MethodListener(Object owner, Method method,
-                                  EventListener annotation) implements PreMotionListener, PostMotionListener, PacketReceiveListener, PreVelocityListener, PostVelocityListener, PacketSendListener, SendMovementPacketsListener {
+    private void subscribe(Subscriber subscriber) {
+        subscriptions.computeIfAbsent(subscriber.eventType(), type -> new ListenerList<>(Subscriber[]::new))
+                .add(subscriber, subscriber.priority());
+        rebuildDispatch(subscriber.eventType());
+    }
 
-        public int getPriority() {
-            return annotation.priority();
-        }
+    private void unsubscribeIf(Predicate<Subscriber> filter) {
+        for (Map.Entry<Class<?>, ListenerList<Subscriber>> entry : subscriptions.entrySet()) {
+            ListenerList<Subscriber> listeners = entry.getValue();
+            Subscriber[] before = listeners.get();
+            listeners.removeIf(filter);
 
-        public boolean receiveCancelled() {
-            return annotation.receiveCancelled();
+            if (listeners.get() != before) {
+                rebuildDispatch(entry.getKey());
+            }
         }
+    }
 
-        public void invokePreMotion() {
-            try {
-                method.invoke(owner);
-            } catch (Exception e) {
-                System.err.println("Error invoking PreMotion event handler: " + e.getMessage());
-            }
+    private synchronized Subscriber[] resolve(Class<?> eventClass) {
+        Subscriber[] subscribers = dispatchTable.get(eventClass);
+        if (subscribers == null) {
+            subscribers = collect(eventClass);
+            dispatchTable.put(eventClass, subscribers);
         }
+        return subscribers;
+    }
 
-        public void invokePostMotion() {
-            try {
-                method.invoke(owner);
-            } catch (Exception e) {
-                System.err.println("Error invoking PostMotion event handler: " + e.getMessage());
+    private void rebuildDispatch(Class<?> changedType) {
+        for (Class<?> eventClass : dispatchTable.keySet()) {
+            if (changedType.isAssignableFrom(eventClass)) {
+                dispatchTable.put(eventClass, collect(eventClass));
             }
         }
+    }
 
-        public void invokePacketReceive(Packet<?> packet) {
-            try {
-                method.invoke(owner, packet);
-            } catch (Exception e) {
-                System.err.println("Error invoking PacketReceive event handler: " + e.getMessage());
+    private Subscriber[] collect(Class<?> eventClass) {
+        List<Subscriber[]> matches = new ArrayList<>();
+        for (Class<?> type : hierarchy(eventClass)) {
+            ListenerList<Subscriber> listeners = subscriptions.get(type);
+            if (listeners != null && !listeners.isEmpty()) {
+                matches.add(listeners.get());
             }
         }
 
-        public void invokePreVelocity(PreVelocityEvent event) {
-            try {
-                method.invoke(owner, event);
-            } catch (Exception e) {
-                System.err.println("Error invoking PreVelocity event handler: " + e.getMessage());
-            }
+        if (matches.isEmpty()) {
+            return NO_SUBSCRIBERS;
+        }
+        if (matches.size() == 1) {
+            return matches.get(0);
         }
 
-        public void invokePostVelocity(PostVelocityEvent event) {
-            try {
-                method.invoke(owner, event);
-            } catch (Exception e) {
-                System.err.println("Error invoking PostVelocity event handler: " + e.getMessage());
-            }
+        List<Subscriber> merged = new ArrayList<>();
+        for (Subscriber[] listeners : matches) {
+            Collections.addAll(merged, listeners);
         }
+        merged.sort((s1, s2) -> Integer.compare(s2.priority(), s1.priority()));
+        return merged.toArray(NO_SUBSCRIBERS);
+    }
 
-        public void invokePacketSend(PacketEvent.Send event) {
-            try {
-                method.invoke(owner, event);
-            } catch (Exception e) {
-                System.err.println("Error invoking PacketSend event handler: " + e.getMessage());
+    private static Set<Class<?>> hierarchy(Class<?> eventClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(eventClass);
+
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (!types.add(type)) {
+                continue;
             }
-        }
 
-        public void invokeSendMovementPackets(SendMovementPacketsEvent.Pre event) {
-            try {
-                method.invoke(owner, event);
-            } catch (Exception e) {
-                System.err.println("Error invoking SendMovementPackets event handler: " + e.getMessage());
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
             }
+            Collections.addAll(pending, type.getInterfaces());
         }
 
-        @Override
-        public void onPreMotion() {
-            invokePreMotion();
-        }
+        return types;
+    }
 
-        @Override
-        public void onPostMotion() {
-            invokePostMotion();
+    private static Subscriber adapt(Class<?> type, Object listener) {
+        if (!type.isInstance(listener)) {
+            return null;
         }
 
-        @Override
-        public void onPacketReceive(Packet<?> packet) {
-            invokePacketReceive(packet);
+        if (type == PreMotionListener.class) {
+            return adapted(type, listener, MotionEvent.Pre.class, event -> ((PreMotionListener) listener).onPreMotion());
+        } else if (type == PostMotionListener.class) {
+            return adapted(type, listener, MotionEvent.Post.class, event -> ((PostMotionListener) listener).onPostMotion());
+        } else if (type == PacketReceiveListener.class) {
+            return adapted(type, listener, Packet.class, event -> ((PacketReceiveListener) listener).onPacketReceive((Packet<?>) event));
+        } else if (type == PreVelocityListener.class) {
+            return adapted(type, listener, PreVelocityEvent.class, event -> ((PreVelocityListener) listener).onPreVelocity((PreVelocityEvent) event));
+        } else if (type == PostVelocityListener.class) {
+            return adapted(type, listener, PostVelocityEvent.class, event -> ((PostVelocityListener) listener).onPostVelocity((PostVelocityEvent) event));
+        } else if (type == PacketSendListener.class) {
+            return adapted(type, listener, PacketEvent.Send.class, event -> ((PacketSendListener) listener).onPacketSend((PacketEvent.Send) event));
+        } else if (type == SendMovementPacketsListener.class) {
+            return adapted(type, listener, SendMovementPacketsEvent.Pre.class, event -> ((SendMovementPacketsListener) listener).onSendMovementPackets((SendMovementPacketsEvent.Pre) event));
+        } else if (type == SeedChangedListener.class) {
+            return adapted(type, listener, SeedChangedEvent.class, event -> ((SeedChangedListener) listener).onSeedChanged((SeedChangedEvent) event));
         }
 
-        @Override
-        public void onPreVelocity(PreVelocityEvent event) {
-            invokePreVelocity(event);
-        }
+        return null;
+    }
 
-        @Override
-        public void onPostVelocity(PostVelocityEvent event) {
-            invokePostVelocity(event);
-        }
+    private static Subscriber adapted(Class<?> listenerType, Object listener, Class<?> eventType, EventInvoker invoker) {
+        // Interface listeners have always been called for cancelled events
+        ListenerStats stats = new ListenerStats(displayName(listener.getClass()) + "#" + listenerType.getSimpleName()
+                + "(" + displayName(eventType) + ")");
+        return new Subscriber(listener, listenerType, eventType, invoker, stats, 0, true, false, OverflowPolicy.DROP_OLDEST);
+    }
 
-        @Override
-        public void onPacketSend(PacketEvent.Send event) {
-            invokePacketSend(event);
+    private static String displayName(Class<?> type) {
+        String name = type.getName();
+        String packageName = type.getPackageName();
+        if (!packageName.isEmpty()) {
+            name = name.substring(packageName.length() + 1);
         }
+        return name.replace('$', '.');
+    }
 
-        @Override
-        public void onSendMovementPackets(SendMovementPacketsEvent.Pre event) {
-            invokeSendMovementPackets(event);
-        }
+    public interface PacketSendListener {
+        void onPacketSend(PacketEvent.Send event);
+    }
+
+    public interface SendMovementPacketsListener {
+        void onSendMovementPackets(SendMovementPacketsEvent.Pre event);
+    }
+
+    /**
+     * @param listenerType Listener interface for {@link #add} subscriptions, null for annotated methods
+     */
+    private record Subscriber(Object owner, Class<?> listenerType, Class<?> eventType, EventInvoker invoker,
+                              ListenerStats stats, int priority, boolean receiveCancelled, boolean async, OverflowPolicy overflow) {
     }
-}
\ No newline at end of file
+}
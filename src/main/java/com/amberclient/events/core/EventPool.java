@@ -0,0 +1,54 @@
+package com.amberclient.events.core;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable event instances, one per thread and dispatch depth.
+ *
+ * Every {@link #acquire()} must be paired with a {@link #release(Object)} of the same instance,
+ * usually in a {@code finally} block. A handler that posts the same event type again (for example
+ * by sending another packet) gets the instance of the next depth, so the outer event is never
+ * overwritten while it is still being dispatched.
+ */
+public final class EventPool<T> {
+    private final Supplier<T> factory;
+    private final ThreadLocal<Frames> frames = ThreadLocal.withInitial(Frames::new);
+
+    public EventPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return An instance that is not in use on the current thread. Callers reset its state.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        Frames frames = this.frames.get();
+        if (frames.depth == frames.instances.length) {
+            frames.instances = Arrays.copyOf(frames.instances, frames.instances.length * 2);
+        }
+
+        Object instance = frames.instances[frames.depth];
+        if (instance == null) {
+            instance = factory.get();
+            frames.instances[frames.depth] = instance;
+        }
+
+        frames.depth++;
+        return (T) instance;
+    }
+
+    public void release(T instance) {
+        Frames frames = this.frames.get();
+        if (frames.depth == 0 || frames.instances[frames.depth - 1] != instance) {
+            throw new IllegalStateException("Pooled event released out of order");
+        }
+        frames.depth--;
+    }
+
+    private static final class Frames {
+        private Object[] instances = new Object[4];
+        private int depth;
+    }
+}
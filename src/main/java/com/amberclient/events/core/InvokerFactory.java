@@ -0,0 +1,81 @@
+package com.amberclient.events.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Generates and caches the {@link EventInvoker} factories of listener methods.
+ *
+ * The lambda class of a method is spun only once; re-registering an object (e.g. when a
+ * module is toggled) just binds a new invoker instance to it.
+ */
+final class InvokerFactory {
+    private static final Map<Method, Function<Object, EventInvoker>> BINDERS = new ConcurrentHashMap<>();
+
+    private InvokerFactory() {
+    }
+
+    static EventInvoker bind(Object owner, Method method) {
+        return BINDERS.computeIfAbsent(method, InvokerFactory::createBinder).apply(owner);
+    }
+
+    private static Function<Object, EventInvoker> createBinder(Method method) {
+        try {
+            return generate(method);
+        } catch (Throwable t) {
+            System.err.println("Falling back to reflective invoker for " + method + ": " + t.getMessage());
+            return owner -> reflective(owner, method);
+        }
+    }
+
+    private static Function<Object, EventInvoker> generate(Method method) throws Throwable {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?>[] paramTypes = method.getParameterTypes();
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        if (paramTypes.length != 1 || paramTypes[0].isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported listener signature");
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+
+        MethodType factoryType = isStatic
+                ? MethodType.methodType(EventInvoker.class)
+                : MethodType.methodType(EventInvoker.class, declaringClass);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", factoryType,
+                MethodType.methodType(void.class, Object.class), target,
+                MethodType.methodType(void.class, paramTypes[0]));
+        MethodHandle factory = site.getTarget();
+
+        return owner -> (EventInvoker) instantiate(factory, isStatic, owner);
+    }
+
+    private static Object instantiate(MethodHandle factory, boolean isStatic, Object owner) {
+        try {
+            return isStatic ? factory.invoke() : factory.invoke(owner);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to bind event invoker", t);
+        }
+    }
+
+    private static EventInvoker reflective(Object owner, Method method) {
+        method.setAccessible(true);
+
+        return event -> {
+            try {
+                method.invoke(owner, event);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e.getCause() != null ? e.getCause() : e);
+            }
+        };
+    }
+}
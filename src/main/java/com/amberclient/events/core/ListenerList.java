@@ -0,0 +1,80 @@
+package com.amberclient.events.core;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Copy-on-write, priority-sorted listener array.
+ *
+ * Writers copy the array under a lock and publish it through a volatile field,
+ * so readers iterate a stable snapshot without locking or allocating.
+ * Listeners with a higher priority come first; equal priorities keep insertion order.
+ */
+final class ListenerList<T> {
+    private final IntFunction<T[]> arrayFactory;
+    private volatile T[] listeners;
+    private int[] priorities = new int[0];
+
+    ListenerList(IntFunction<T[]> arrayFactory) {
+        this.arrayFactory = arrayFactory;
+        this.listeners = arrayFactory.apply(0);
+    }
+
+    /**
+     * @return The current snapshot. Callers must not modify it.
+     */
+    T[] get() {
+        return listeners;
+    }
+
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    synchronized void add(T listener, int priority) {
+        T[] current = listeners;
+        int index = 0;
+        while (index < current.length && priorities[index] >= priority) {
+            index++;
+        }
+
+        T[] updated = arrayFactory.apply(current.length + 1);
+        int[] updatedPriorities = new int[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(priorities, 0, updatedPriorities, 0, index);
+        updated[index] = listener;
+        updatedPriorities[index] = priority;
+        System.arraycopy(current, index, updated, index + 1, current.length - index);
+        System.arraycopy(priorities, index, updatedPriorities, index + 1, current.length - index);
+
+        priorities = updatedPriorities;
+        listeners = updated;
+    }
+
+    synchronized void remove(Object listener) {
+        removeIf(l -> l == listener);
+    }
+
+    synchronized void removeIf(Predicate<? super T> filter) {
+        T[] current = listeners;
+        T[] updated = arrayFactory.apply(current.length);
+        int[] updatedPriorities = new int[current.length];
+        int size = 0;
+
+        for (int i = 0; i < current.length; i++) {
+            if (!filter.test(current[i])) {
+                updated[size] = current[i];
+                updatedPriorities[size] = priorities[i];
+                size++;
+            }
+        }
+
+        if (size == current.length) {
+            return;
+        }
+
+        priorities = Arrays.copyOf(updatedPriorities, size);
+        listeners = Arrays.copyOf(updated, size);
+    }
+}
@@ -0,0 +1,60 @@
+package com.amberclient.events.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation metrics of one event listener, or of one event type.
+ * Counters are striped ({@link LongAdder}) so the network and client threads don't contend.
+ */
+public final class ListenerStats {
+    private final String name;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    ListenerStats(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos) {
+        invocations.increment();
+        totalNanos.add(nanos);
+        latencies.record(nanos);
+    }
+
+    void recordException() {
+        exceptions.increment();
+    }
+
+    void reset() {
+        invocations.reset();
+        totalNanos.reset();
+        exceptions.reset();
+        latencies.reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100, e.g. 50 or 99
+     * @return Approximate latency at that percentile, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+}
@@ -0,0 +1,21 @@
+package com.amberclient.events.core;
+
+/**
+ * What an async {@link EventListener} does when the {@link AsyncEventChannel} is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Discard the oldest pending event to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Block the posting thread until the worker frees a slot.
+     */
+    BLOCK,
+
+    /**
+     * Replace the pending event of the same listener and event type, or drop the oldest one if there is none.
+     */
+    COALESCE
+}
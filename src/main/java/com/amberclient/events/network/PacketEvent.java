@@ -1,6 +1,8 @@
 package com.amberclient.events.network;
 
 import com.amberclient.events.Cancellable;
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.Packet;
 
@@ -16,7 +18,9 @@ public class PacketEvent {
         }
     }
 
-    public static class Send extends Cancellable {
+    public static class Send extends Cancellable implements ICopyable {
+        private static final EventPool<Send> POOL = new EventPool<>(() -> new Send(null, null));
+
         public Packet<?> packet;
         public ClientConnection connection;
 
@@ -25,6 +29,27 @@ public class PacketEvent {
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Send acquire(Packet<?> packet, ClientConnection connection) {
+            Send event = POOL.acquire();
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public static void release(Send event) {
+            event.packet = null;
+            event.connection = null;
+            POOL.release(event);
+        }
+
+        @Override
+        public Send copy() {
+            Send copy = new Send(packet, connection);
+            copy.setCancelled(isCancelled());
+            return copy;
+        }
     }
 
     public static class Sent {
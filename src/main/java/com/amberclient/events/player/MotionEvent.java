@@ -0,0 +1,19 @@
+package com.amberclient.events.player;
+
+public class MotionEvent {
+    public static class Pre extends MotionEvent {
+        private static final Pre INSTANCE = new Pre();
+
+        public static Pre get() {
+            return INSTANCE;
+        }
+    }
+
+    public static class Post extends MotionEvent {
+        private static final Post INSTANCE = new Post();
+
+        public static Post get() {
+            return INSTANCE;
+        }
+    }
+}
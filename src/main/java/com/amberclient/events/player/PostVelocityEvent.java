@@ -1,13 +1,34 @@
 package com.amberclient.events.player;
 
-public class PostVelocityEvent {
-    private boolean canceled;
+import com.amberclient.events.Cancellable;
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
+
+public class PostVelocityEvent extends Cancellable implements ICopyable {
+    private static final EventPool<PostVelocityEvent> POOL = new EventPool<>(PostVelocityEvent::new);
 
     public void setCanceled(boolean canceled) {
-        this.canceled = canceled;
+        setCancelled(canceled);
     }
 
     public boolean isCanceled() {
-        return canceled;
+        return isCancelled();
+    }
+
+    public static PostVelocityEvent acquire() {
+        PostVelocityEvent event = POOL.acquire();
+        event.setCancelled(false);
+        return event;
+    }
+
+    public static void release(PostVelocityEvent event) {
+        POOL.release(event);
+    }
+
+    @Override
+    public PostVelocityEvent copy() {
+        PostVelocityEvent copy = new PostVelocityEvent();
+        copy.setCancelled(isCancelled());
+        return copy;
     }
-}
\ No newline at end of file
+}
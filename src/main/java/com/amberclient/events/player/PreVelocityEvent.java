@@ -1,10 +1,15 @@
 package com.amberclient.events.player;
 
-public class PreVelocityEvent {
+import com.amberclient.events.Cancellable;
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
+
+public class PreVelocityEvent extends Cancellable implements ICopyable {
+    private static final EventPool<PreVelocityEvent> POOL = new EventPool<>(PreVelocityEvent::new);
+
     private double motionX;
     private double motionY;
     private double motionZ;
-    private boolean canceled;
 
     public double getMotionX() {
         return motionX;
@@ -31,10 +36,33 @@ public class PreVelocityEvent {
     }
 
     public void setCanceled(boolean canceled) {
-        this.canceled = canceled;
+        setCancelled(canceled);
     }
 
     public boolean isCanceled() {
-        return canceled;
+        return isCancelled();
+    }
+
+    public static PreVelocityEvent acquire(double motionX, double motionY, double motionZ) {
+        PreVelocityEvent event = POOL.acquire();
+        event.setCancelled(false);
+        event.motionX = motionX;
+        event.motionY = motionY;
+        event.motionZ = motionZ;
+        return event;
+    }
+
+    public static void release(PreVelocityEvent event) {
+        POOL.release(event);
+    }
+
+    @Override
+    public PreVelocityEvent copy() {
+        PreVelocityEvent copy = new PreVelocityEvent();
+        copy.setCancelled(isCancelled());
+        copy.motionX = motionX;
+        copy.motionY = motionY;
+        copy.motionZ = motionZ;
+        return copy;
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,38 @@
 package com.amberclient.events.world;
 
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 
-public class BlockUpdateEvent {
-    private static final BlockUpdateEvent INSTANCE = new BlockUpdateEvent();
+public class BlockUpdateEvent implements ICopyable {
+    private static final EventPool<BlockUpdateEvent> POOL = new EventPool<>(BlockUpdateEvent::new);
 
     public BlockPos pos;
     public BlockState oldState, newState;
 
-    public static BlockUpdateEvent get(BlockPos pos, BlockState oldState, BlockState newState) {
-        INSTANCE.pos = pos;
-        INSTANCE.oldState = oldState;
-        INSTANCE.newState = newState;
+    public static BlockUpdateEvent acquire(BlockPos pos, BlockState oldState, BlockState newState) {
+        BlockUpdateEvent event = POOL.acquire();
+        event.pos = pos;
+        event.oldState = oldState;
+        event.newState = newState;
 
-        return INSTANCE;
+        return event;
+    }
+
+    public static void release(BlockUpdateEvent event) {
+        event.pos = null;
+        event.oldState = null;
+        event.newState = null;
+        POOL.release(event);
     }
-}
 
+    @Override
+    public BlockUpdateEvent copy() {
+        BlockUpdateEvent copy = new BlockUpdateEvent();
+        copy.pos = pos.toImmutable();
+        copy.oldState = oldState;
+        copy.newState = newState;
+        return copy;
+    }
+}
@@ -1,5 +1,30 @@
 package com.amberclient.events.world;
 
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
 import net.minecraft.world.chunk.WorldChunk;
 
-public record ChunkDataEvent(WorldChunk chunk) {}
+public class ChunkDataEvent implements ICopyable {
+    private static final EventPool<ChunkDataEvent> POOL = new EventPool<>(ChunkDataEvent::new);
+
+    public WorldChunk chunk;
+
+    public static ChunkDataEvent acquire(WorldChunk chunk) {
+        ChunkDataEvent event = POOL.acquire();
+        event.chunk = chunk;
+
+        return event;
+    }
+
+    public static void release(ChunkDataEvent event) {
+        event.chunk = null;
+        POOL.release(event);
+    }
+
+    @Override
+    public ChunkDataEvent copy() {
+        ChunkDataEvent copy = new ChunkDataEvent();
+        copy.chunk = chunk;
+        return copy;
+    }
+}
@@ -1,12 +1,28 @@
 package com.amberclient.events.world.seed;
 
-public class SeedChangedEvent {
-    private static final SeedChangedEvent INSTANCE = new SeedChangedEvent();
+import com.amberclient.events.ICopyable;
+import com.amberclient.events.core.EventPool;
+
+public class SeedChangedEvent implements ICopyable {
+    private static final EventPool<SeedChangedEvent> POOL = new EventPool<>(SeedChangedEvent::new);
 
     public Long seed;
 
-    public static SeedChangedEvent get(long seed) {
-        INSTANCE.seed = seed;
-        return INSTANCE;
+    public static SeedChangedEvent acquire(long seed) {
+        SeedChangedEvent event = POOL.acquire();
+        event.seed = seed;
+        return event;
+    }
+
+    public static void release(SeedChangedEvent event) {
+        event.seed = null;
+        POOL.release(event);
+    }
+
+    @Override
+    public SeedChangedEvent copy() {
+        SeedChangedEvent copy = new SeedChangedEvent();
+        copy.seed = seed;
+        return copy;
     }
 }
@@ -3,7 +3,6 @@ package com.amberclient.mixins.client.core;
 import com.amberclient.events.core.EventManager;
 import com.amberclient.events.network.PacketEvent;
 import com.amberclient.modules.player.FakeLag;
-import com.amberclient.utils.module.ModuleManager;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.OffThreadException;
 import net.minecraft.network.listener.PacketListener;
@@ -24,16 +23,20 @@ public class ClientConnectionMixin {
 
     @Inject(method = "send(Lnet/minecraft/network/packet/Packet;)V", at = @At("HEAD"), cancellable = true)
     private void onSendPacket(Packet<?> packet, CallbackInfo ci) {
-        FakeLag fakeLag = (FakeLag) ModuleManager.getInstance().findModuleByName("FakeLag");
-        if (fakeLag == null || FakeLag.isBypassing() || !fakeLag.isEnabled()) {
+        // Nobody listens while the listening modules are disabled, don't build the event at all
+        if (FakeLag.isBypassing() || !EventManager.getInstance().hasListeners(PacketEvent.Send.class)) {
             return;
         }
 
-        PacketEvent.Send event = new PacketEvent.Send(packet, (ClientConnection) (Object) this);
-        EventManager.getInstance().firePacketSend(event);
+        PacketEvent.Send event = PacketEvent.Send.acquire(packet, (ClientConnection) (Object) this);
+        try {
+            EventManager.getInstance().post(event);
 
-        if (event.isCancelled()) {
-            ci.cancel();
+            if (event.isCancelled()) {
+                ci.cancel();
+            }
+        } finally {
+            PacketEvent.Send.release(event);
         }
     }
 
@@ -50,6 +53,6 @@ public class ClientConnectionMixin {
             return;
         }
 
-        EventManager.getInstance().firePacketReceive(packet);
+        EventManager.getInstance().post(packet);
     }
 }
\ No newline at end of file
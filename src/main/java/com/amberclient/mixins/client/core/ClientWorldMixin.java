@@ -0,0 +1,42 @@
+package com.amberclient.mixins.client.core;
+
+import com.amberclient.events.core.EventManager;
+import com.amberclient.events.world.BlockUpdateEvent;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientWorld.class)
+public class ClientWorldMixin {
+    @Unique
+    private BlockState previousBlockState;
+
+    // Block update and chunk delta packets both end up here
+    @Inject(method = "handleBlockUpdate", at = @At("HEAD"))
+    private void beforeHandleBlockUpdate(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        previousBlockState = EventManager.getInstance().hasListeners(BlockUpdateEvent.class)
+                ? ((ClientWorld) (Object) this).getBlockState(pos) : null;
+    }
+
+    @Inject(method = "handleBlockUpdate", at = @At("TAIL"))
+    private void afterHandleBlockUpdate(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        BlockState oldState = previousBlockState;
+        previousBlockState = null;
+
+        // The update may have been held back by a pending client-side prediction
+        BlockState newState = ((ClientWorld) (Object) this).getBlockState(pos);
+        if (oldState == null || oldState == newState) return;
+
+        BlockUpdateEvent event = BlockUpdateEvent.acquire(pos, oldState, newState);
+        try {
+            EventManager.getInstance().post(event);
+        } finally {
+            BlockUpdateEvent.release(event);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.amberclient.mixins.client.core;
 
+import com.amberclient.events.core.EventManager;
+import com.amberclient.events.world.TickEvent;
 import com.amberclient.modules.player.FastPlace;
 import com.amberclient.modules.combat.Hitbox;
 import com.amberclient.modules.render.EntityESP;
 import com.amberclient.utils.accessors.EntityMixinAccessor;
 import com.amberclient.utils.module.ModuleManager;
+import com.amberclient.utils.module.TickPhase;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -46,7 +49,8 @@ public class MinecraftClientMixin {
 
     @Inject(method = "tick", at = @At("HEAD"))
     private void onTick(CallbackInfo ci) {
-        ModuleManager.getInstance().onTick();
+        EventManager.getInstance().post(TickEvent.Pre.get());
+        ModuleManager.getInstance().onTick(TickPhase.PRE);
 
         if (FastPlace.isFastPlaceEnabled && ((MinecraftClient) (Object) this).options.useKey.isPressed()) {
             int randomDelay = FastPlace.getRandomDelay();
@@ -57,6 +61,11 @@ public class MinecraftClientMixin {
         }
     }
 
+    @Inject(method = "tick", at = @At("TAIL"))
+    private void onTickEnd(CallbackInfo ci) {
+        EventManager.getInstance().post(TickEvent.Post.get());
+    }
+
     @Inject(method = "hasOutline", at = @At("HEAD"), cancellable = true)
     private void onHasOutline(Entity entity, CallbackInfoReturnable<Boolean> info) {
         EntityESP espModule = EntityESP.getInstance();
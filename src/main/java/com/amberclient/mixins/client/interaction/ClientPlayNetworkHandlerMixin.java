@@ -1,25 +1,32 @@
 package com.amberclient.mixins.client.interaction;
 
 import com.amberclient.events.core.EventManager;
+import com.amberclient.events.player.MotionEvent;
+import com.amberclient.events.world.ChunkDataEvent;
 import com.amberclient.utils.core.TickRate;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
 import net.minecraft.network.packet.s2c.play.EntityVelocityUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.WorldTimeUpdateS2CPacket;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(ClientPlayNetworkHandler.class)
 public class ClientPlayNetworkHandlerMixin {
+    @Shadow private ClientWorld world;
+
     @Inject(method = "tick", at = @At("HEAD"))
     private void onTickStart(CallbackInfo ci) {
-        EventManager.getInstance().firePreMotion();
+        EventManager.getInstance().post(MotionEvent.Pre.get());
     }
 
     @Inject(method = "tick", at = @At("TAIL"))
     private void onTickEnd(CallbackInfo ci) {
-        EventManager.getInstance().firePostMotion();
+        EventManager.getInstance().post(MotionEvent.Post.get());
     }
 
     @Inject(method = "onWorldTimeUpdate", at = @At("HEAD"))
@@ -27,9 +34,21 @@ public class ClientPlayNetworkHandlerMixin {
         TickRate.onPacket(packet);
     }
 
+    @Inject(method = "onChunkData", at = @At("TAIL"))
+    private void onChunkData(ChunkDataS2CPacket packet, CallbackInfo ci) {
+        if (world == null || !EventManager.getInstance().hasListeners(ChunkDataEvent.class)) return;
+
+        ChunkDataEvent event = ChunkDataEvent.acquire(world.getChunk(packet.getChunkX(), packet.getChunkZ()));
+        try {
+            EventManager.getInstance().post(event);
+        } finally {
+            ChunkDataEvent.release(event);
+        }
+    }
+
     // Velocity-related mixin
     @Inject(method = "onEntityVelocityUpdate", at = @At("HEAD"))
     private void onEntityVelocityUpdate(EntityVelocityUpdateS2CPacket packet, CallbackInfo ci) {
-        EventManager.getInstance().firePacketReceive(packet);
+        EventManager.getInstance().post(packet);
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.amberclient.mixins.client.rendering;
+
+import com.amberclient.utils.accessors.LivingEntityRenderStateAccessor;
+import net.minecraft.client.render.entity.state.LivingEntityRenderState;
+import net.minecraft.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Lets EntityESP find the entity a render state was filled from. Only set while ESP is enabled,
+ * and cleared once the state has been rendered.
+ */
+@Mixin(LivingEntityRenderState.class)
+public abstract class LivingEntityRenderStateMixin implements LivingEntityRenderStateAccessor {
+    @Unique private LivingEntity _entity;
+
+    @Unique @Override
+    public LivingEntity amberClient$getEntity() {
+        return _entity;
+    }
+
+    @Unique @Override
+    public void amberClient$setEntity(LivingEntity entity) {
+        _entity = entity;
+    }
+}
@@ -1,6 +1,8 @@
 package com.amberclient.mixins.features;
 
 import com.amberclient.modules.render.EntityESP;
+import com.amberclient.utils.accessors.LivingEntityRenderStateAccessor;
+import com.amberclient.utils.renderer.NametagLayout;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.OverlayTexture;
@@ -13,6 +15,7 @@ import net.minecraft.client.render.entity.state.PlayerEntityRenderState;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.LivingEntity;
 import org.joml.Matrix4f;
+import org.joml.Vector3f;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
@@ -21,15 +24,22 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(LivingEntityRenderer.class)
 public abstract class EntityESPMixin<T extends LivingEntity, S extends LivingEntityRenderState, M extends net.minecraft.client.render.entity.model.EntityModel<? super S>> {
+    @Unique private final Vector3f _nametagAnchor = new Vector3f();
+    @Unique private final Matrix4f _nametagMatrix = new Matrix4f();
 
     @Inject(method = "render", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/util/math/MatrixStack;pop()V", shift = At.Shift.BEFORE))
     private void onRenderBeforePop(S renderState, MatrixStack matrices, VertexConsumerProvider vertexConsumers, int light, CallbackInfo ci) {
-        EntityESP esp = EntityESP.Companion.getInstance(); // Access via Companion
-        LivingEntity entity = EntityESP.Companion.getStateToEntity().get(renderState); // Access via Companion
+        if (renderState == null) return;
 
-        if (entity != null && entity == MinecraftClient.getInstance().player) { return; }
+        // Read once and cleared, even when ESP was just turned off, so the state never keeps an entity alive
+        LivingEntityRenderStateAccessor slot = (LivingEntityRenderStateAccessor) renderState;
+        LivingEntity entity = slot.amberClient$getEntity();
+        slot.amberClient$setEntity(null);
+
+        EntityESP esp = EntityESP.getInstance();
+        if (esp == null || !esp.isEnabled()) return;
 
-        if (esp == null || !esp.isEnabled() || renderState == null) return;
+        if (entity != null && entity == MinecraftClient.getInstance().player) { return; }
 
         boolean isPlayer = renderState instanceof PlayerEntityRenderState;
 
@@ -56,124 +66,68 @@ public abstract class EntityESPMixin<T extends LivingEntity, S extends LivingEnt
 
         // Render name/health info
         if (esp.getEntityInfosSetting().isEnabled()) {
-            renderNametag(renderState, matrices, vertexConsumers, light, esp);
+            renderNametag(renderState, entity, matrices, vertexConsumers, light);
         }
     }
 
     @Unique
-    private void renderNametag(S renderState, MatrixStack matrices, VertexConsumerProvider vertexConsumers, int light, EntityESP esp) {
+    private void renderNametag(S renderState, LivingEntity entity, MatrixStack matrices, VertexConsumerProvider vertexConsumers, int light) {
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player == null) return;
 
-        String name = "";
-        String health = "";
+        TextRenderer textRenderer = client.textRenderer;
+        NametagLayout layout;
 
-        LivingEntity entity = EntityESP.Companion.getStateToEntity().get(renderState); // Access via Companion
         if (entity != null) {
-            if (esp.getEntityInfosSetting().isEnabled()) {
-                if (entity.hasCustomName()) {
-                    name = entity.getCustomName().getString();
-                } else if (renderState instanceof PlayerEntityRenderState playerState) {
-                    name = playerState.name;
-                } else {
-                    name = entity.getType().getName().getString();
-                }
-
-                int healthValue = (int) entity.getHealth();
-                int maxHealth = (int) entity.getMaxHealth();
-                health = "HP: " + healthValue + "/" + maxHealth;
+            Object nameSource;
+            if (entity.hasCustomName()) {
+                nameSource = entity.getCustomName();
+            } else if (renderState instanceof PlayerEntityRenderState playerState) {
+                nameSource = playerState.name;
+            } else {
+                nameSource = entity.getType().getName();
             }
+
+            layout = NametagLayout.get(entity.getId(), nameSource, (int) entity.getHealth(), (int) entity.getMaxHealth(), textRenderer);
         } else {
-            if (esp.getEntityInfosSetting().isEnabled()) {
-                if (renderState instanceof PlayerEntityRenderState playerState) {
-                    name = playerState.name;
-                } else {
-                    name = "Mob";
-                }
-                health = "HP: Unknown";
-            }
+            String name = renderState instanceof PlayerEntityRenderState playerState ? playerState.name : "Mob";
+            layout = NametagLayout.unknown(name, textRenderer);
         }
 
-        if (name.isEmpty() && health.isEmpty()) return;
-
-        TextRenderer textRenderer = client.textRenderer;
-
-        matrices.push();
-
+        // Anchor above the head, taken out of the entity's flipped and body-rotated model space
         float heightOffset = renderState instanceof PlayerEntityRenderState ? -1.2F : -1.0f;
+        matrices.push();
         matrices.translate(0.0, heightOffset, 0.0);
-        matrices.multiply(client.getEntityRenderDispatcher().camera.getRotation());
-        matrices.scale(-0.025f, 0.025f, 0.025f);
-
-        Matrix4f matrix = matrices.peek().getPositionMatrix();
-
-        int nameWidth = name.isEmpty() ? 0 : textRenderer.getWidth(name);
-        int healthWidth = health.isEmpty() ? 0 : textRenderer.getWidth(health);
-        int maxWidth = Math.max(nameWidth, healthWidth);
-
-        int padding = 2;
-        int lineHeight = 10;
-        int totalHeight = 0;
-
-        if (!name.isEmpty()) totalHeight += lineHeight;
-        if (!health.isEmpty()) totalHeight += lineHeight;
-
-        VertexConsumer backgroundBuffer = vertexConsumers.getBuffer(RenderLayer.getGui());
-
-        int bgLeft = -maxWidth / 2 - padding;
-        int bgRight = maxWidth / 2 + padding;
-        int bgTop = -padding;
-        int bgBottom = totalHeight + padding;
-
-        drawBothSides(backgroundBuffer, matrix, bgLeft, bgTop, bgRight, bgBottom, 0xC0000000);
-        drawTextBothSides(textRenderer, name, health, nameWidth, healthWidth, lineHeight, matrix, vertexConsumers, light);
-
+        matrices.peek().getPositionMatrix().getTranslation(_nametagAnchor);
         matrices.pop();
-    }
 
-    @Unique
-    private void drawTextBothSides(TextRenderer textRenderer, String name, String health, int nameWidth, int healthWidth, int lineHeight, Matrix4f matrix, VertexConsumerProvider vertexConsumers, int light) {
-        int currentY = 0;
-        float nameX = -nameWidth / 2.0f;
-        float healthX = -healthWidth / 2.0f;
-
-        if (!name.isEmpty()) {
-            textRenderer.draw(name, nameX, currentY, 0xFFFFFFFF, false, matrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
-            currentY += lineHeight;
-        }
-
-        if (!health.isEmpty()) {
-            textRenderer.draw(health, healthX, currentY, 0xFFFFFFFF, false, matrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
-        }
-
-        Matrix4f backMatrix = new Matrix4f(matrix);
-        backMatrix.scale(-1.0f, 1.0f, 1.0f);
-        currentY = 0;
+        // Rebuilt like the vanilla labels so the front side always faces the camera, one draw per line is enough
+        Matrix4f matrix = _nametagMatrix.translation(_nametagAnchor)
+                .rotate(client.getEntityRenderDispatcher().getRotation())
+                .scale(0.025f, -0.025f, 0.025f);
 
-        if (!name.isEmpty()) {
-            textRenderer.draw(name, nameX, currentY, 0xFFFFFFFF, false, backMatrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
-            currentY += lineHeight;
-        }
+        int padding = 2;
+        int halfWidth = layout.width / 2;
+        drawBackground(vertexConsumers.getBuffer(RenderLayer.getGui()), matrix,
+                -halfWidth - padding, -padding, halfWidth + padding, layout.getHeight() + padding, 0xC0000000);
 
-        if (!health.isEmpty()) {
-            textRenderer.draw(health, healthX, currentY, 0xFFFFFFFF, false, backMatrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
-        }
+        textRenderer.draw(layout.name, -layout.nameWidth / 2.0f, 0, 0xFFFFFFFF, false, matrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
+        textRenderer.draw(layout.healthText, -layout.healthWidth / 2.0f, NametagLayout.LINE_HEIGHT, 0xFFFFFFFF, false, matrix, vertexConsumers, TextRenderer.TextLayerType.SEE_THROUGH, 0, light);
     }
 
     @Unique
-    private void drawBothSides(VertexConsumer buffer, Matrix4f matrix, int left, int top, int right, int bottom, int color) {
+    private void drawBackground(VertexConsumer buffer, Matrix4f matrix, int left, int top, int right, int bottom, int color) {
         float a = (color >> 24 & 0xFF) / 255.0f;
         float r = (color >> 16 & 0xFF) / 255.0f;
         float g = (color >> 8 & 0xFF) / 255.0f;
         float b = (color & 0xFF) / 255.0f;
 
-        // Front face
+        // Both windings, four vertices are cheaper than relying on the layer's cull state
         buffer.vertex(matrix, left, bottom, 0).color(r, g, b, a);
         buffer.vertex(matrix, right, bottom, 0).color(r, g, b, a);
         buffer.vertex(matrix, right, top, 0).color(r, g, b, a);
         buffer.vertex(matrix, left, top, 0).color(r, g, b, a);
 
-        // Back face
         buffer.vertex(matrix, left, top, 0).color(r, g, b, a);
         buffer.vertex(matrix, right, top, 0).color(r, g, b, a);
         buffer.vertex(matrix, right, bottom, 0).color(r, g, b, a);
@@ -182,6 +136,7 @@ public abstract class EntityESPMixin<T extends LivingEntity, S extends LivingEnt
 
     @Inject(method = "updateRenderState*", at = @At("TAIL"))
     private void onUpdateRenderState(T entity, S state, float tickDelta, CallbackInfo ci) {
-        EntityESP.Companion.getStateToEntity().put(state, entity); // Access via Companion
+        // States are reused across frames, a stale entity must not outlive ESP being disabled
+        ((LivingEntityRenderStateAccessor) state).amberClient$setEntity(EntityESP.isActive() ? entity : null);
     }
 }
\ No newline at end of file
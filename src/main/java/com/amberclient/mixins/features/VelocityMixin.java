@@ -17,38 +17,43 @@ public class VelocityMixin {
     @Inject(method = "onEntityVelocityUpdate", at = @At("HEAD"), cancellable = true)
     public void onPreEntityVelocityUpdate(EntityVelocityUpdateS2CPacket packet, CallbackInfo ci) {
         MinecraftClient client = MinecraftClient.getInstance();
-        if (client.player == null) {
+        if (client.player == null || !EventManager.getInstance().hasListeners(PreVelocityEvent.class)) {
             return;
         }
 
         if (packet.getEntityId() == client.player.getId()) {
-            PreVelocityEvent event = new PreVelocityEvent();
-            event.setMotionX(packet.getVelocityX());
-            event.setMotionY(packet.getVelocityY());
-            event.setMotionZ(packet.getVelocityZ());
+            PreVelocityEvent event = PreVelocityEvent.acquire(packet.getVelocityX(), packet.getVelocityY(), packet.getVelocityZ());
+            try {
+                EventManager.getInstance().post(event);
 
-            EventManager.getInstance().firePreVelocity(event);
+                if (event.isCanceled()) {
+                    ci.cancel();
+                    return;
+                }
 
-            if (event.isCanceled()) {
+                double motionX = event.getMotionX();
+                double motionY = event.getMotionY();
+                double motionZ = event.getMotionZ();
+
+                client.player.setVelocity(motionX, motionY, motionZ);
                 ci.cancel();
-                return;
+            } finally {
+                PreVelocityEvent.release(event);
             }
-
-            double motionX = event.getMotionX();
-            double motionY = event.getMotionY();
-            double motionZ = event.getMotionZ();
-
-            client.player.setVelocity(motionX, motionY, motionZ);
-            ci.cancel();
         }
     }
 
     @Inject(method = "onEntityVelocityUpdate", at = @At("RETURN"))
     public void onPostEntityVelocityUpdate(EntityVelocityUpdateS2CPacket packet, CallbackInfo ci) {
-        if (MinecraftClient.getInstance().player == null) return;
+        if (MinecraftClient.getInstance().player == null || !EventManager.getInstance().hasListeners(PostVelocityEvent.class)) return;
 
         if (packet.getEntityId() == MinecraftClient.getInstance().player.getId()) {
-            EventManager.getInstance().firePostVelocity(new PostVelocityEvent());
+            PostVelocityEvent event = PostVelocityEvent.acquire();
+            try {
+                EventManager.getInstance().post(event);
+            } finally {
+                PostVelocityEvent.release(event);
+            }
         }
     }
 }
\ No newline at end of file
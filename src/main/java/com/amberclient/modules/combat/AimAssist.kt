@@ -1,11 +1,11 @@
 package com.amberclient.modules.combat
 
+import com.amberclient.utils.entity.EntityIndex
 import com.amberclient.utils.minecraft.MinecraftUtils
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
 import com.amberclient.utils.module.ModuleSettings
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents
 import net.minecraft.entity.Entity
 import net.minecraft.entity.EntityType
 import net.minecraft.entity.LivingEntity
@@ -71,14 +71,6 @@ class AimAssist : Module("AimAssist", "Automatically aims at nearby entities", M
         FEET
     }
 
-    init {
-        ClientTickEvents.END_CLIENT_TICK.register { client ->
-            if (isEnabled()) {
-                onTick()
-            }
-        }
-    }
-
     override fun getSettings(): List<ModuleSettings> {
         return listOf(
             range, fov, ignoreWalls, priority, bodyTarget,
@@ -128,16 +120,13 @@ class AimAssist : Module("AimAssist", "Automatically aims at nearby entities", M
         val world = mc.world ?: return null
         val player = mc.player ?: return null
 
-        val entities = world.getOtherEntities(
-            player,
-            player.boundingBox.expand(range.doubleValue)
-        )
+        val entities = EntityIndex.getInstance().inBox(player.boundingBox.expand(range.doubleValue))
 
         var bestTarget: Entity? = null
         var bestScore = Double.MAX_VALUE
 
         for (entity in entities) {
-            if (!isValidTarget(entity)) continue
+            if (entity == player || !isValidTarget(entity)) continue
 
             val score = calculateTargetScore(entity)
             if (score < bestScore) {
@@ -8,9 +8,17 @@ import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleSettings
 import com.amberclient.utils.minecraft.rotation.RotationFaker
 import com.amberclient.utils.module.ModuleCategory
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
+import net.minecraft.entity.Entity
+import net.minecraft.entity.player.PlayerEntity
 import net.minecraft.text.Text
+import net.minecraft.util.math.Box
+import net.minecraft.util.math.MathHelper
 import org.apache.logging.log4j.Logger
 import org.apache.logging.log4j.LogManager
+import kotlin.math.acos
+import kotlin.math.min
+import kotlin.random.Random
 
 class Hitbox : Module("Hitbox", "(DETECTABLE) Increases hitboxes' size", ModuleCategory.COMBAT), ConfigurableModule {
 
@@ -40,6 +48,16 @@ class Hitbox : Module("Hitbox", "(DETECTABLE) Increases hitboxes' size", ModuleC
 
         @JvmStatic
         fun getInstance(): Hitbox? = instance
+
+        // Entities farther than this from the player keep their real hitbox
+        const val EXPANSION_RANGE = 4.0
+    }
+
+    /**
+     * How much an entity's hitbox grows on each side, decided once per tick.
+     */
+    class Expansion(@JvmField val x: Double, @JvmField val yUp: Double, @JvmField val z: Double) {
+        fun apply(box: Box): Box = Box(box.minX - x, box.minY, box.minZ - z, box.maxX + x, box.maxY + yUp, box.maxZ + z)
     }
 
     private val expandX = ModuleSettings("Expand X", "Horizontal hitbox expansion", 0.25, 0.0, 2.0, 0.05)
@@ -48,6 +66,9 @@ class Hitbox : Module("Hitbox", "(DETECTABLE) Increases hitboxes' size", ModuleC
 
     private val rotationFaker = RotationFaker()
 
+    // Expansions of the current tick by entity id, shared by targeting and rendering
+    private val expansions = Int2ObjectOpenHashMap<Expansion>()
+
     private val settings = mutableListOf<ModuleSettings>().apply {
         add(expandX)
         add(expandYUp)
@@ -68,6 +89,7 @@ class Hitbox : Module("Hitbox", "(DETECTABLE) Increases hitboxes' size", ModuleC
 
     override fun onDisable() {
         isHitboxModuleEnabled = false
+        expansions.clear()
         with(EventManager.getInstance()) {
             remove(PreMotionListener::class.java, rotationFaker)
             remove(PostMotionListener::class.java, rotationFaker)
@@ -75,7 +97,33 @@ class Hitbox : Module("Hitbox", "(DETECTABLE) Increases hitboxes' size", ModuleC
     }
 
     override fun onTick() {
-        if (!isHitboxModuleEnabled) return
+        expansions.clear()
+    }
+
+    /**
+     * @return The expansion of [entity] for this tick, or null if it is out of range
+     */
+    fun getExpansion(entity: Entity): Expansion? {
+        val player = client.player ?: return null
+        if (player.pos.squaredDistanceTo(entity.pos) > EXPANSION_RANGE * EXPANSION_RANGE) return null
+
+        return expansions.get(entity.id) ?: computeExpansion(player, entity).also { expansions.put(entity.id, it) }
+    }
+
+    // Grows with the angle between the look direction and the entity, plus a little jitter
+    private fun computeExpansion(player: PlayerEntity, entity: Entity): Expansion {
+        val playerPos = player.eyePos
+        val entityPos = entity.pos.add(0.0, entity.height / 2.0, 0.0)
+        val toEntity = entityPos.subtract(playerPos).normalize()
+        val dot = player.rotationVector.dotProduct(toEntity)
+        val angle = Math.toDegrees(acos(MathHelper.clamp(dot, -1.0, 1.0)))
+
+        val angleFactor = 0.5 + min(1.0, angle / 45.0) * 0.5
+        return Expansion(
+            MathHelper.clamp(expandX.doubleValue * angleFactor + (Random.nextDouble() - 0.5) * 0.1, 0.0, 2.0),
+            MathHelper.clamp(expandYUp.doubleValue * angleFactor + (Random.nextDouble() - 0.5) * 0.1, 0.0, 2.0),
+            MathHelper.clamp(expandZ.doubleValue * angleFactor + (Random.nextDouble() - 0.5) * 0.1, 0.0, 2.0)
+        )
     }
 
     override fun getSettings(): List<ModuleSettings> = settings
@@ -1,5 +1,6 @@
 package com.amberclient.modules.combat
 
+import com.amberclient.utils.entity.EntityIndex
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
@@ -52,7 +53,6 @@ class KillAura : Module("KillAura", "Automatically attacks nearby entities", Mod
     }
 
     private var lastClickTime = 0L
-    private var scanTick = 0
     private var attacking = false
 
     private var targetYaw: Float = 0f
@@ -71,6 +71,11 @@ class KillAura : Module("KillAura", "Automatically attacks nearby entities", Mod
 
     private val settings = listOf(range, attackSpeed, useWeaponSpeed, targeting, rotation, rotationSpeed)
 
+    init {
+        // Rotation is smoothed every tick, the target scan only runs every 5th tick
+        schedule("Target scan", 5, 0.3) { scanAndAttack() }
+    }
+
     override fun onDisable() {
         stopAttacking()
         isRotating = false
@@ -101,14 +106,20 @@ class KillAura : Module("KillAura", "Automatically attacks nearby entities", Mod
         if (rotationMode != RotationMode.OFF && isRotating) {
             applySmoothRotation()
         }
+    }
 
-        if (scanTick++ % 5 != 0) return
+    private fun scanAndAttack() {
+        val client = MinecraftClient.getInstance()
+        val player = client.player
+        if (player == null || client.world == null || !player.isAlive || getGameMode(player) == GameMode.SPECTATOR) return
 
+        val rotationMode = rotation.getEnumValue<RotationMode>()
         val targetingMode = targeting.getEnumValue<TargetingMode>()
         var closestDist = Double.MAX_VALUE
         var closestTarget: LivingEntity? = null
 
-        for (entity in client.world!!.entities) {
+        // The effective range is randomized up to 5% above the setting in entityCheck
+        for (entity in EntityIndex.getInstance().inRadius(player.pos, range.doubleValue * 1.05)) {
             if (entity is LivingEntity && entityCheck(entity, targetingMode)) {
                 val dist = player.distanceTo(entity).toDouble()
                 if (dist < closestDist) {
@@ -1,5 +1,6 @@
 package com.amberclient.modules.minigames.murdererfinder
 
+import com.amberclient.utils.entity.EntityIndex
 import com.amberclient.utils.minecraft.MinecraftUtils
 import com.amberclient.modules.minigames.murdererfinder.config.Config
 import com.amberclient.modules.minigames.murdererfinder.config.ConfigManager
@@ -51,8 +52,8 @@ object MurdererFinder {
         var murderersList = ""
         var detectivesList = ""
 
-        client.world?.let { world ->
-            for (player in world.players) {
+        if (client.world != null) {
+            for (player in EntityIndex.getInstance().getPlayers()) {
                 val uuid = player.gameProfile.id
                 if (markedMurders.contains(uuid))
                     murderersList += "${player.gameProfile.name} "
@@ -4,7 +4,6 @@ import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
 import com.amberclient.utils.module.ModuleSettings
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents
 import net.minecraft.client.MinecraftClient
 import net.minecraft.client.network.ClientPlayerEntity
 import net.minecraft.util.math.BlockPos
@@ -36,14 +35,6 @@ class SafeWalk : Module("SafeWalk", "Prevents falling off edges", ModuleCategory
     private val random = Random
     private var distanceUpdateTicks = 0
 
-    init {
-        ClientTickEvents.END_CLIENT_TICK.register { client ->
-            if (isEnabled()) {
-                onTick()
-            }
-        }
-    }
-
     override fun getSettings(): List<ModuleSettings> {
         return listOf(inAir, randomEdgeDistance)
     }
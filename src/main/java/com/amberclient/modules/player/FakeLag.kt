@@ -1,12 +1,12 @@
 package com.amberclient.modules.player
 
 import com.amberclient.events.core.EventListener
-import com.amberclient.events.core.EventManager
 import com.amberclient.events.network.PacketEvent
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
 import com.amberclient.utils.module.ModuleSettings
+import com.amberclient.utils.module.TickScheduler
 import net.minecraft.client.MinecraftClient
 import net.minecraft.network.ClientConnection
 import net.minecraft.network.packet.Packet
@@ -39,7 +39,12 @@ class FakeLag : Module("FakeLag", "Holds back packets to prevent you from being
 
     private val packetQueue = ConcurrentLinkedQueue<QueuedPacket>()
     private var lastPulseTime = 0L
-    private var tickCounter = 0
+
+    init {
+        // Releasing held packets is timing sensitive, pruning old ones can wait for a quieter tick
+        schedule("Process packets", 3, 0.1, TickScheduler.Priority.HIGH) { processPackets() }
+        schedule("Cleanup", 20, 0.05, TickScheduler.Priority.LOW) { cleanupOldPackets() }
+    }
 
     companion object {
         @JvmStatic
@@ -57,37 +62,17 @@ class FakeLag : Module("FakeLag", "Holds back packets to prevent you from being
 
     override fun onEnable() {
         super.onEnable()
-        EventManager.getInstance().register(this)
         packetQueue.clear()
         lastPulseTime = System.currentTimeMillis()
-        tickCounter = 0
     }
 
     override fun onDisable() {
         super.onDisable()
-        EventManager.getInstance().unregister(this)
 
         flushAllPackets()
         packetQueue.clear()
     }
 
-    override fun onTick() {
-        super.onTick()
-
-        val mc = MinecraftClient.getInstance()
-        if (mc.player == null || mc.world == null) return
-
-        tickCounter++
-
-        if (tickCounter % 20 == 0) {
-            cleanupOldPackets()
-        }
-
-        if (tickCounter % 3 == 0) {
-            processPackets()
-        }
-    }
-
     @EventListener
     fun onPacketSend(event: PacketEvent.Send) {
         if (!isEnabled()) return
@@ -4,26 +4,24 @@ import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
 import com.amberclient.utils.module.ModuleSettings
+import com.amberclient.utils.renderer.NametagLayout
 import net.minecraft.client.MinecraftClient
-import net.minecraft.client.render.entity.state.LivingEntityRenderState
-import net.minecraft.entity.LivingEntity
 import net.minecraft.text.Text
 import org.apache.logging.log4j.LogManager
 import org.apache.logging.log4j.Logger
-import java.util.*
 
 class EntityESP : Module("EntityESP", "Display outlines around entity models (players & mobs)", ModuleCategory.RENDER), ConfigurableModule {
     companion object {
         const val MOD_ID = "amberclient-entityesp"
         val LOGGER: Logger = LogManager.getLogger(MOD_ID)
 
-        @JvmStatic
-        val stateToEntity: MutableMap<LivingEntityRenderState, LivingEntity> = WeakHashMap()
-
         private var INSTANCE: EntityESP? = null
 
         @JvmStatic
         fun getInstance(): EntityESP? = INSTANCE
+
+        @JvmStatic
+        fun isActive(): Boolean = INSTANCE?.isEnabled() == true
     }
 
     private val renderPlayersSetting: ModuleSettings
@@ -49,6 +47,10 @@ class EntityESP : Module("EntityESP", "Display outlines around entity models (pl
 
     override fun getSettings(): List<ModuleSettings> = settings
 
+    override fun onDisable() {
+        NametagLayout.clear()
+    }
+
     override fun onSettingChanged(setting: ModuleSettings) {
         val client = MinecraftClient.getInstance()
         val player = client.player ?: return
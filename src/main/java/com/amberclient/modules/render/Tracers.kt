@@ -1,26 +1,28 @@
 package com.amberclient.modules.render
 
+import com.amberclient.utils.entity.EntityIndex
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
+import com.amberclient.utils.module.ModuleProfiler
 import com.amberclient.utils.module.ModuleSettings
-import com.mojang.blaze3d.systems.ProjectionType
 import com.mojang.blaze3d.systems.RenderSystem
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents
 import net.minecraft.client.MinecraftClient
+import net.minecraft.client.gl.GlUsage
 import net.minecraft.client.gl.ShaderProgramKeys
+import net.minecraft.client.gl.VertexBuffer
 import net.minecraft.client.render.*
-import net.minecraft.client.util.math.MatrixStack
 import net.minecraft.entity.Entity
 import net.minecraft.entity.LivingEntity
 import net.minecraft.entity.mob.Monster
 import net.minecraft.entity.passive.PassiveEntity
 import net.minecraft.entity.player.PlayerEntity
+import net.minecraft.util.math.ColorHelper
 import net.minecraft.util.math.MathHelper
 import net.minecraft.util.math.Vec3d
 import org.joml.Matrix4f
 import org.joml.Vector4f
-import org.lwjgl.opengl.GL11
 import java.awt.Color
 
 class Tracers : Module("Tracers", "Draws lines towards entities", ModuleCategory.RENDER), ConfigurableModule {
@@ -50,6 +52,11 @@ class Tracers : Module("Tracers", "Draws lines towards entities", ModuleCategory
 
     private var renderCallback: WorldRenderEvents.AfterEntities? = null
 
+    private val snapshot = EntitySnapshot()
+    private val modelView = Matrix4f()
+    private val projection = Matrix4f()
+    private var vertexBuffer: VertexBuffer? = null
+
     override fun getSettings(): List<ModuleSettings> {
         return listOf(
             ModuleSettings("Mode", "What entities to show tracers for", mode),
@@ -76,90 +83,66 @@ class Tracers : Module("Tracers", "Draws lines towards entities", ModuleCategory
         if (renderCallback == null) {
             renderCallback = WorldRenderEvents.AfterEntities { context ->
                 if (enabled && client.player != null && client.world != null) {
-                    renderTracers(context.matrixStack(), context.tickCounter().getTickDelta(true))
+                    val start = ModuleProfiler.begin()
+                    renderTracers(context.tickCounter().getTickDelta(true))
+                    ModuleProfiler.end(name, ModuleProfiler.Phase.RENDER, start)
                 }
             }
             WorldRenderEvents.AFTER_ENTITIES.register(renderCallback!!)
         }
     }
 
-    private fun renderTracers(matrixStack: MatrixStack?, tickDelta: Float) {
+    override fun onDisable() {
+        vertexBuffer?.close()
+        vertexBuffer = null
+    }
+
+    private fun renderTracers(tickDelta: Float) {
         val mc = MinecraftClient.getInstance()
         val player = mc.player ?: return
-        val world = mc.world ?: return
         val camera = mc.gameRenderer.camera
 
-        val entities = world.entities.filter { entity ->
-            shouldRenderTrace(entity) && player.distanceTo(entity) <= maxDistance
-        }
-
-        if (entities.isEmpty()) return
+        capture(player, camera.pos, tickDelta)
+        if (snapshot.size == 0) return
 
+        val startX: Float
+        val startY: Float
+        val startZ: Float
         when (tracerOrigin) {
-            TracerOrigin.BODY -> render3DTracers(matrixStack, player, camera, entities, tickDelta)
-            TracerOrigin.OFFSCREEN, TracerOrigin.CURSOR -> render2DTracers(matrixStack, player, camera, entities, tickDelta)
-        }
-    }
-
-    private fun render3DTracers(matrixStack: MatrixStack?, player: PlayerEntity, camera: Camera, entities: List<Entity>, tickDelta: Float) {
-        matrixStack?.push()
-
-        val cameraPos = camera.pos
-        matrixStack?.translate(-cameraPos.x, -cameraPos.y, -cameraPos.z)
-
-        RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR)
-        RenderSystem.enableBlend()
-        RenderSystem.defaultBlendFunc()
-        RenderSystem.disableCull()
-        RenderSystem.disableDepthTest()
-        RenderSystem.lineWidth(lineWidth)
-
-        GL11.glEnable(GL11.GL_LINE_SMOOTH)
-        GL11.glHint(GL11.GL_LINE_SMOOTH_HINT, GL11.GL_NICEST)
-
-        val startPos = get3DTracerStartPosition(player, camera, tickDelta)
-
-        val tessellator = Tessellator.getInstance()
-        val bufferBuilder = tessellator.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR)
-
-        entities.forEach { entity ->
-            if (entity is LivingEntity && entity != player) {
-                val distance = player.distanceTo(entity)
-                val color = getEntityColor(entity, distance)
-                val entityPos = getInterpolatedEntityPosition(entity, tickDelta)
-
-                val entityCenter = Vec3d(
-                    entityPos.x - cameraPos.x,
-                    entityPos.y + entity.height / 2.0 - cameraPos.y,
-                    entityPos.z - cameraPos.z
-                )
-
-                drawLine(bufferBuilder, startPos, entityCenter, color)
+            TracerOrigin.BODY -> {
+                val cameraPos = camera.pos
+                startX = (MathHelper.lerp(tickDelta.toDouble(), player.lastRenderX, player.x) - cameraPos.x + 0.1).toFloat()
+                startY = (MathHelper.lerp(tickDelta.toDouble(), player.lastRenderY, player.y) + player.height * 0.5 - cameraPos.y).toFloat()
+                startZ = (MathHelper.lerp(tickDelta.toDouble(), player.lastRenderZ, player.z) - cameraPos.z + 0.1).toFloat()
+                modelView.set(RenderSystem.getModelViewMatrix())
+                projection.set(RenderSystem.getProjectionMatrix())
+            }
+            TracerOrigin.OFFSCREEN, TracerOrigin.CURSOR -> {
+                val window = mc.window
+                val screenWidth = window.scaledWidth.toFloat()
+                val screenHeight = window.scaledHeight.toFloat()
+                snapshot.projectToScreen(RenderSystem.getModelViewMatrix(), RenderSystem.getProjectionMatrix(), screenWidth, screenHeight)
+                if (snapshot.size == 0) return
+
+                startX = screenWidth / 2.0f
+                startY = if (tracerOrigin == TracerOrigin.CURSOR) screenHeight / 2.0f else 0.0f
+                startZ = 0.0f
+                modelView.identity()
+                projection.setOrtho(0.0f, screenWidth, screenHeight, 0.0f, -1000.0f, 1000.0f)
             }
         }
 
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end())
-
-        GL11.glDisable(GL11.GL_LINE_SMOOTH)
-        RenderSystem.enableCull()
-        RenderSystem.enableDepthTest()
-        RenderSystem.disableBlend()
-        RenderSystem.lineWidth(1.0f)
-
-        matrixStack?.pop()
+        draw(startX, startY, startZ)
     }
 
-    private fun render2DTracers(matrixStack: MatrixStack?, player: PlayerEntity, camera: net.minecraft.client.render.Camera, entities: List<Entity>, tickDelta: Float) {
-        val mc = MinecraftClient.getInstance()
-        val window = mc.window
-        val screenWidth = window.scaledWidth.toDouble()
-        val screenHeight = window.scaledHeight.toDouble()
-
-        val originalModelView = Matrix4f(RenderSystem.getModelViewMatrix())
-        val originalProjection = Matrix4f(RenderSystem.getProjectionMatrix())
-
-        matrixStack?.push()
-        matrixStack?.loadIdentity()
+    // One vertex build and one draw call for every tracer of the frame, whatever the origin mode
+    private fun draw(startX: Float, startY: Float, startZ: Float) {
+        val bufferBuilder = Tessellator.getInstance().begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR)
+        for (i in 0 until snapshot.size) {
+            val color = snapshot.colors[i]
+            bufferBuilder.vertex(startX, startY, startZ).color(color)
+            bufferBuilder.vertex(snapshot.xs[i].toFloat(), snapshot.ys[i].toFloat(), snapshot.zs[i].toFloat()).color(color)
+        }
 
         RenderSystem.enableBlend()
         RenderSystem.defaultBlendFunc()
@@ -167,153 +150,111 @@ class Tracers : Module("Tracers", "Draws lines towards entities", ModuleCategory
         RenderSystem.disableDepthTest()
         RenderSystem.lineWidth(lineWidth)
 
-        GL11.glEnable(GL11.GL_LINE_SMOOTH)
-        GL11.glHint(GL11.GL_LINE_SMOOTH_HINT, GL11.GL_NICEST)
+        // The matrices are passed to the draw call, the global ones are left untouched
+        val buffer = vertexBuffer ?: VertexBuffer(GlUsage.DYNAMIC_WRITE).also { vertexBuffer = it }
+        buffer.bind()
+        buffer.upload(bufferBuilder.end())
+        buffer.draw(modelView, projection, RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR))
+        VertexBuffer.unbind()
 
-        val orthoMatrix = Matrix4f().setOrtho(0.0f, screenWidth.toFloat(), screenHeight.toFloat(), 0.0f, -1000.0f, 1000.0f)
-        RenderSystem.setProjectionMatrix(orthoMatrix, ProjectionType.ORTHOGRAPHIC)
-
-        RenderSystem.getModelViewMatrix().identity()
-
-        RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR)
-
-        val tessellator = Tessellator.getInstance()
-        val bufferBuilder = tessellator.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR)
-
-        val startPos = get2DTracerStartPosition(screenWidth, screenHeight)
-
-        entities.forEach { entity ->
-            if (entity is LivingEntity && entity != player) {
-                val distance = player.distanceTo(entity)
-                val color = getEntityColor(entity, distance)
-                val entityPos = getInterpolatedEntityPosition(entity, tickDelta)
-
-                val entityCenter = Vec3d(
-                    entityPos.x,
-                    entityPos.y + entity.height / 2.0,
-                    entityPos.z
-                )
-
-                val screenPos = worldToScreen(entityCenter, camera, screenWidth, screenHeight, originalModelView, originalProjection)
-                if (screenPos != null) {
-                    draw2DLine(bufferBuilder, startPos, screenPos, color)
-                }
-            }
-        }
-
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end())
-
-        RenderSystem.setProjectionMatrix(originalProjection, ProjectionType.PERSPECTIVE)
-        RenderSystem.getModelViewMatrix().set(originalModelView)
-
-        GL11.glDisable(GL11.GL_LINE_SMOOTH)
         RenderSystem.enableCull()
         RenderSystem.enableDepthTest()
         RenderSystem.disableBlend()
         RenderSystem.lineWidth(1.0f)
-
-        matrixStack?.pop()
     }
 
-    private fun get3DTracerStartPosition(player: PlayerEntity, camera: net.minecraft.client.render.Camera, tickDelta: Float): Vec3d {
-        val cameraPos = camera.pos
-        val playerPos = Vec3d(
-            MathHelper.lerp(tickDelta.toDouble(), player.lastRenderX, player.x),
-            MathHelper.lerp(tickDelta.toDouble(), player.lastRenderY, player.y),
-            MathHelper.lerp(tickDelta.toDouble(), player.lastRenderZ, player.z)
-        )
-
-        return Vec3d(
-            playerPos.x - cameraPos.x + 0.1,
-            playerPos.y + player.height * 0.5 - cameraPos.y,
-            playerPos.z - cameraPos.z + 0.1
-        )
-    }
-
-    private fun get2DTracerStartPosition(screenWidth: Double, screenHeight: Double): Vec3d {
-        return when (tracerOrigin) {
-            TracerOrigin.OFFSCREEN -> Vec3d(screenWidth / 2.0, 0.0, 0.0)
-            TracerOrigin.CURSOR -> Vec3d(screenWidth / 2.0, screenHeight / 2.0, 0.0)
-            else -> Vec3d(screenWidth / 2.0, 0.0, 0.0)
+    private fun getEntityColor(entity: LivingEntity, squaredDistance: Double): Int {
+        val baseColor = when (entity) {
+            is PlayerEntity -> playerColor
+            is Monster, is PassiveEntity -> mobColor
+            else -> defaultColor
         }
-    }
-
-    private fun worldToScreen(worldPos: Vec3d, camera: Camera, screenWidth: Double, screenHeight: Double, modelViewMatrix: Matrix4f, projectionMatrix: Matrix4f): Vec3d? {
-        val cameraPos = camera.pos
-        val relativePos = worldPos.subtract(cameraPos)
-
-        val worldVec = Vector4f(
-            relativePos.x.toFloat(),
-            relativePos.y.toFloat(),
-            relativePos.z.toFloat(),
-            1.0f
-        )
-
-        worldVec.mul(modelViewMatrix)
-        worldVec.mul(projectionMatrix)
-
-        if (worldVec.w <= 0.0f) return null
-
-        worldVec.div(worldVec.w)
-
-        val screenX = (worldVec.x + 1.0f) * 0.5f * screenWidth.toFloat()
-        val screenY = (1.0f - worldVec.y) * 0.5f * screenHeight.toFloat()
 
-        if (screenX.isNaN() || screenY.isNaN() || screenX.isInfinite() || screenY.isInfinite()) {
-            return null
+        return if (useDistanceTransparency) {
+            val normalizedDistance = (Math.sqrt(squaredDistance) / maxDistance).toFloat().coerceIn(0.0f, 1.0f)
+            val alpha = (255 * normalizedDistance).toInt().coerceIn(51, 255)
+            ColorHelper.withAlpha(alpha, baseColor.rgb)
+        } else {
+            baseColor.rgb
         }
-
-        return Vec3d(screenX.toDouble(), screenY.toDouble(), 0.0)
     }
 
-    private fun drawLine(bufferBuilder: BufferBuilder, start: Vec3d, end: Vec3d, color: Color) {
-        val red = color.red / 255.0f
-        val green = color.green / 255.0f
-        val blue = color.blue / 255.0f
-        val alpha = color.alpha / 255.0f
-
-        bufferBuilder.vertex(start.x.toFloat(), start.y.toFloat(), start.z.toFloat())
-            .color(red, green, blue, alpha)
+    private fun capture(player: PlayerEntity, cameraPos: Vec3d, tickDelta: Float) {
+        snapshot.clear()
+        val maxDistanceSq = maxDistance.toDouble() * maxDistance
+        val delta = tickDelta.toDouble()
 
-        bufferBuilder.vertex(end.x.toFloat(), end.y.toFloat(), end.z.toFloat())
-            .color(red, green, blue, alpha)
-    }
-
-    private fun draw2DLine(bufferBuilder: BufferBuilder, start: Vec3d, end: Vec3d, color: Color) {
-        val red = color.red / 255.0f
-        val green = color.green / 255.0f
-        val blue = color.blue / 255.0f
-        val alpha = color.alpha / 255.0f
+        EntityIndex.getInstance().forEachInBox(player.boundingBox.expand(maxDistance.toDouble())) { entity ->
+            if (entity !is LivingEntity || entity == player || !shouldRenderTrace(entity)) return@forEachInBox
 
-        bufferBuilder.vertex(start.x.toFloat(), start.y.toFloat(), 0.0f)
-            .color(red, green, blue, alpha)
+            val squaredDistance = player.squaredDistanceTo(entity)
+            if (squaredDistance > maxDistanceSq) return@forEachInBox
 
-        bufferBuilder.vertex(end.x.toFloat(), end.y.toFloat(), 0.0f)
-            .color(red, green, blue, alpha)
+            snapshot.add(
+                MathHelper.lerp(delta, entity.lastRenderX, entity.x) - cameraPos.x,
+                MathHelper.lerp(delta, entity.lastRenderY, entity.y) + entity.height / 2.0 - cameraPos.y,
+                MathHelper.lerp(delta, entity.lastRenderZ, entity.z) - cameraPos.z,
+                getEntityColor(entity, squaredDistance)
+            )
+        }
     }
 
-    private fun getInterpolatedEntityPosition(entity: Entity, tickDelta: Float): Vec3d {
-        return Vec3d(
-            MathHelper.lerp(tickDelta.toDouble(), entity.lastRenderX, entity.x),
-            MathHelper.lerp(tickDelta.toDouble(), entity.lastRenderY, entity.y),
-            MathHelper.lerp(tickDelta.toDouble(), entity.lastRenderZ, entity.z)
-        )
-    }
+    /**
+     * The tracers of a frame: interpolated entity centers, relative to the camera, and packed ARGB colors.
+     * The arrays only grow, so a steady scene allocates nothing per frame.
+     */
+    internal class EntitySnapshot {
+        var xs = DoubleArray(64)
+        var ys = DoubleArray(64)
+        var zs = DoubleArray(64)
+        var colors = IntArray(64)
+        var size = 0
+
+        private val point = Vector4f()
+
+        fun clear() {
+            size = 0
+        }
 
-    private fun getEntityColor(entity: LivingEntity, distance: Float): Color {
-        val baseColor = when (entity) {
-            is PlayerEntity -> playerColor
-            is Monster, is PassiveEntity -> mobColor
-            else -> defaultColor
+        fun add(x: Double, y: Double, z: Double, color: Int) {
+            if (size == xs.size) grow()
+            xs[size] = x
+            ys[size] = y
+            zs[size] = z
+            colors[size] = color
+            size++
         }
 
-        return if (useDistanceTransparency) {
-            val normalizedDistance = (distance / maxDistance).coerceIn(0.0f, 1.0f)
-            val alpha = (255 * normalizedDistance).toInt().coerceIn(51, 255)
+        /**
+         * Replaces each point by its position on screen, in scaled pixels. Points behind the camera are dropped.
+         */
+        fun projectToScreen(modelView: Matrix4f, projection: Matrix4f, screenWidth: Float, screenHeight: Float) {
+            var kept = 0
+            for (i in 0 until size) {
+                point.set(xs[i].toFloat(), ys[i].toFloat(), zs[i].toFloat(), 1.0f)
+                point.mul(modelView)
+                point.mul(projection)
+                if (point.w <= 0.0f) continue
+
+                val screenX = (point.x / point.w + 1.0f) * 0.5f * screenWidth
+                val screenY = (1.0f - point.y / point.w) * 0.5f * screenHeight
+                if (!screenX.isFinite() || !screenY.isFinite()) continue
+
+                xs[kept] = screenX.toDouble()
+                ys[kept] = screenY.toDouble()
+                zs[kept] = 0.0
+                colors[kept] = colors[i]
+                kept++
+            }
+            size = kept
+        }
 
-            Color(baseColor.red, baseColor.green, baseColor.blue, alpha)
-        } else {
-            baseColor
+        private fun grow() {
+            val capacity = xs.size * 2
+            xs = xs.copyOf(capacity)
+            ys = ys.copyOf(capacity)
+            zs = zs.copyOf(capacity)
+            colors = colors.copyOf(capacity)
         }
     }
 
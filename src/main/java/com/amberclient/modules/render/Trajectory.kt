@@ -3,6 +3,7 @@ package com.amberclient.modules.render
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ModuleCategory
+import com.amberclient.utils.module.ModuleProfiler
 import com.amberclient.utils.module.ModuleSettings
 import com.mojang.blaze3d.systems.RenderSystem
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents
@@ -94,7 +95,9 @@ class Trajectory : Module("Trajectory", "Renders the trajectory of projectiles",
         if (renderCallback == null) {
             renderCallback = WorldRenderEvents.AfterEntities { context ->
                 if (enabled && client.player != null && client.world != null) {
+                    val start = ModuleProfiler.begin()
                     renderTrajectory(context.matrixStack())
+                    ModuleProfiler.end(name, ModuleProfiler.Phase.RENDER, start)
                 }
             }
             WorldRenderEvents.AFTER_ENTITIES.register(renderCallback!!)
@@ -0,0 +1,50 @@
+package com.amberclient.modules.render.xray
+
+import net.minecraft.block.BlockState
+import net.minecraft.world.chunk.PalettedContainer
+
+/**
+ * Read access to block states, backed by a [SectionSnapshot] on the scan workers
+ * or by the live world on the client thread.
+ */
+internal fun interface BlockStateLookup {
+    fun getBlockState(x: Int, y: Int, z: Int): BlockState
+}
+
+/**
+ * Decides whether a block is visible from air, fluids or non-opaque blocks for "Exposed Only".
+ *
+ * Works on raw coordinates, so checking a candidate allocates nothing.
+ */
+internal object BlockExposure {
+
+    fun isExposed(lookup: BlockStateLookup, x: Int, y: Int, z: Int): Boolean {
+        return exposes(lookup.getBlockState(x, y + 1, z)) ||
+                exposes(lookup.getBlockState(x, y - 1, z)) ||
+                exposes(lookup.getBlockState(x, y, z - 1)) ||
+                exposes(lookup.getBlockState(x, y, z + 1)) ||
+                exposes(lookup.getBlockState(x + 1, y, z)) ||
+                exposes(lookup.getBlockState(x - 1, y, z))
+    }
+
+    /**
+     * Checks a block of the section held by [container], whose origin is ([baseX], [baseY], [baseZ]).
+     * Neighbours inside the section are read from the container directly, only the ones across
+     * a section border go through [lookup].
+     */
+    fun isExposed(lookup: BlockStateLookup, container: PalettedContainer<BlockState>,
+                  baseX: Int, baseY: Int, baseZ: Int, localX: Int, localY: Int, localZ: Int): Boolean {
+        if (localX in 1..14 && localY in 1..14 && localZ in 1..14) {
+            return exposes(container.get(localX, localY + 1, localZ)) ||
+                    exposes(container.get(localX, localY - 1, localZ)) ||
+                    exposes(container.get(localX, localY, localZ - 1)) ||
+                    exposes(container.get(localX, localY, localZ + 1)) ||
+                    exposes(container.get(localX + 1, localY, localZ)) ||
+                    exposes(container.get(localX - 1, localY, localZ))
+        }
+        return isExposed(lookup, baseX + localX, baseY + localY, baseZ + localZ)
+    }
+
+    // Air is never opaque, so this also covers it
+    private fun exposes(state: BlockState): Boolean = !state.isOpaque || !state.fluidState.isEmpty
+}
@@ -1,6 +0,0 @@
-package com.amberclient.modules.render.xray
-
-import com.amberclient.utils.core.Color
-import net.minecraft.util.math.BlockPos
-
-data class BlockPosWithColor(val pos: BlockPos, val color: Color)
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.amberclient.modules.render.xray
 
 import com.amberclient.utils.core.Color
+import net.minecraft.block.Block
+import net.minecraft.block.BlockState
 import net.minecraft.block.Blocks
 import java.util.Collections
 
 object BlockStore {
     private var instance: BlockStore? = null
-    val cache: MutableSet<BlockSearchEntry> = HashSet()
+    private val cache: MutableSet<BlockSearchEntry> = HashSet()
+
+    // Bumped on every change of the cache, scanners compare it to notice stale results
+    @Volatile
+    var version = 0
+        private set
+
+    @Volatile
+    private var snapshot: Snapshot? = null
 
     init {
         // Default blocks to scan
@@ -29,7 +39,78 @@ object BlockStore {
         return Cache(Collections.unmodifiableSet(cache))
     }
 
+    @Synchronized
+    fun add(entry: BlockSearchEntry) {
+        if (cache.add(entry)) changed()
+    }
+
+    @Synchronized
+    fun remove(entry: BlockSearchEntry) {
+        if (cache.remove(entry)) changed()
+    }
+
+    @Synchronized
+    fun clear() {
+        if (cache.isNotEmpty()) {
+            cache.clear()
+            changed()
+        }
+    }
+
+    /**
+     * @return The entries and their color table, rebuilt lazily after the cache changed
+     */
+    fun getSnapshot(): Snapshot {
+        return snapshot ?: synchronized(this) {
+            snapshot ?: Snapshot(version, Collections.unmodifiableSet(HashSet(cache))).also { snapshot = it }
+        }
+    }
+
+    private fun changed() {
+        version++
+        snapshot = null
+    }
+
     data class Cache<T>(val cache: T) {
         fun get(): T = cache
     }
-}
\ No newline at end of file
+
+    /**
+     * Immutable view of the search entries, with a color table indexed by block state raw id.
+     */
+    class Snapshot(val version: Int, val entries: Set<BlockSearchEntry>) {
+        // Packed ARGB per state raw id, NONE for states that aren't searched
+        val colors = IntArray(Block.STATE_IDS.size())
+
+        init {
+            // Exact states first, so they win over the block-wide entries below
+            for (entry in entries) {
+                if (!entry.isDefault) {
+                    setIfAbsent(entry.state, entry.color)
+                }
+            }
+            for (entry in entries) {
+                if (entry.isDefault) {
+                    for (state in entry.state.block.stateManager.states) {
+                        setIfAbsent(state, entry.color)
+                    }
+                }
+            }
+        }
+
+        private fun setIfAbsent(state: BlockState, color: Color) {
+            val id = Block.getRawIdFromState(state)
+            if (colors[id] == NONE) {
+                colors[id] = pack(color)
+            }
+        }
+
+        companion object {
+            const val NONE = 0
+
+            // Fully transparent colors would be invisible anyway, so 0 can mean "not searched"
+            fun pack(color: Color): Int =
+                (color.alpha() shl 24) or (color.red() shl 16) or (color.green() shl 8) or color.blue()
+        }
+    }
+}
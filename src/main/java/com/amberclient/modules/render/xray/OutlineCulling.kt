@@ -0,0 +1,37 @@
+package com.amberclient.modules.render.xray
+
+import net.minecraft.client.render.Frustum
+import net.minecraft.util.math.Box
+import net.minecraft.util.math.Vec3d
+
+/**
+ * Decides which Xray chunk meshes are drawn. Pure math on the mesh bounds, so it needs no GL context.
+ */
+internal object OutlineCulling {
+
+    /**
+     * @param bounds World-space bounds of the outlines of a chunk
+     * @param maxDistance Meshes whose closest point is horizontally farther than this from the camera are skipped.
+     * Scans cover the whole world height, so the vertical distance is never held against a mesh
+     * @param frustum The camera frustum, positioned at the camera, or null to only cull by distance
+     */
+    fun isVisible(bounds: Box, cameraPos: Vec3d, maxDistance: Double, frustum: Frustum?): Boolean {
+        if (horizontalSquaredDistanceTo(bounds, cameraPos) > maxDistance * maxDistance) {
+            return false
+        }
+        return frustum == null || frustum.isVisible(bounds)
+    }
+
+    // Squared XZ distance from the point to the closest point of the box, 0 above or below it
+    fun horizontalSquaredDistanceTo(bounds: Box, pos: Vec3d): Double {
+        val dx = maxOf(bounds.minX - pos.x, 0.0, pos.x - bounds.maxX)
+        val dz = maxOf(bounds.minZ - pos.z, 0.0, pos.z - bounds.maxZ)
+        return dx * dx + dz * dz
+    }
+
+    /**
+     * Distance limit for a scan radius of [halfRange] chunks: the farthest results are at the corners
+     * of the scanned square, one chunk of margin keeps them while the player walks to the next chunk.
+     */
+    fun maxDistance(halfRange: Int): Double = (halfRange + 1) * 16.0 * Math.sqrt(2.0)
+}
@@ -0,0 +1,159 @@
+package com.amberclient.modules.render.xray
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
+import net.minecraft.util.math.BlockPos
+
+/**
+ * Outlines groups of same-colored blocks by their silhouette instead of one cube per block.
+ *
+ * A grid edge is part of the silhouette when the four cells around it are neither all empty, all
+ * filled, nor split into two filled cells sharing a face (a flat surface). Collinear silhouette edges
+ * are then merged into single lines. A vein of touching ores gets the outline of its overall shape,
+ * and edges shared by neighbouring cubes are no longer drawn several times.
+ *
+ * The output only depends on the set of blocks: colors, edges and lines are walked in sorted order.
+ */
+internal object OutlineMesher {
+
+    fun interface LineSink {
+        fun line(x1: Float, y1: Float, z1: Float, x2: Float, y2: Float, z2: Float, color: Int)
+    }
+
+    // Coordinates are packed on 21 bits each, offset so that the -1 neighbours stay positive
+    private const val BITS = 21
+    private const val MASK = (1L shl BITS) - 1
+    private const val OFFSET = 1 shl (BITS - 1)
+
+    private const val AXIS_X = 0
+    private const val AXIS_Y = 1
+    private const val AXIS_Z = 2
+
+    /**
+     * Emits the merged outlines of [blocks], with coordinates relative to ([originX], 0, [originZ]).
+     * The blocks must lie within a range of about a million blocks of the origin, a chunk in practice.
+     *
+     * @return The number of lines emitted
+     */
+    fun mesh(blocks: OutlineSet, originX: Int, originZ: Int, sink: LineSink): Int {
+        val byColor = Int2ObjectOpenHashMap<LongOpenHashSet>()
+        for (i in 0 until blocks.size) {
+            val color = blocks.getColor(i)
+            var cells = byColor.get(color)
+            if (cells == null) {
+                cells = LongOpenHashSet()
+                byColor.put(color, cells)
+            }
+            val pos = blocks.getPos(i)
+            cells.add(pack(BlockPos.unpackLongX(pos) - originX, BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos) - originZ))
+        }
+
+        val colors = byColor.keys.toIntArray()
+        colors.sort()
+
+        var lines = 0
+        for (color in colors) {
+            val cells = byColor.get(color)
+            for (axis in AXIS_X..AXIS_Z) {
+                lines += emitAxis(cells, axis, color, sink)
+            }
+        }
+        return lines
+    }
+
+    private fun emitAxis(cells: LongOpenHashSet, axis: Int, color: Int, sink: LineSink): Int {
+        // Edge keys are packed as (u, v, a), a being the coordinate along the axis, so sorting
+        // them puts collinear edges next to each other
+        val edges = LongOpenHashSet()
+        val iterator = cells.iterator()
+        while (iterator.hasNext()) {
+            val cell = iterator.nextLong()
+            val x = unpack(cell, 2)
+            val y = unpack(cell, 1)
+            val z = unpack(cell, 0)
+            val u = if (axis == AXIS_X) y else x
+            val v = if (axis == AXIS_Z) y else z
+            val a = when (axis) {
+                AXIS_X -> x
+                AXIS_Y -> y
+                else -> z
+            }
+
+            // The four edges of the cell along the axis
+            for (du in 0..1) {
+                for (dv in 0..1) {
+                    val edge = pack(u + du, v + dv, a)
+                    if (!edges.contains(edge) && isSilhouette(cells, axis, u + du, v + dv, a)) {
+                        edges.add(edge)
+                    }
+                }
+            }
+        }
+
+        if (edges.isEmpty()) {
+            return 0
+        }
+
+        val sorted = edges.toLongArray()
+        sorted.sort()
+
+        var lines = 0
+        var runStart = sorted[0]
+        var previous = sorted[0]
+        for (i in 1..sorted.size) {
+            val edge = if (i < sorted.size) sorted[i] else Long.MIN_VALUE
+            if (edge == previous + 1) {
+                previous = edge
+                continue
+            }
+
+            emitLine(axis, runStart, unpack(previous, 0) + 1, color, sink)
+            lines++
+            runStart = edge
+            previous = edge
+        }
+        return lines
+    }
+
+    // The edge along the axis at (u, v) is bordered by the cells (u-1, v-1), (u, v-1), (u, v) and (u-1, v)
+    private fun isSilhouette(cells: LongOpenHashSet, axis: Int, u: Int, v: Int, a: Int): Boolean {
+        val c0 = cells.contains(cell(axis, u - 1, v - 1, a))
+        val c1 = cells.contains(cell(axis, u, v - 1, a))
+        val c2 = cells.contains(cell(axis, u, v, a))
+        val c3 = cells.contains(cell(axis, u - 1, v, a))
+
+        return when ((if (c0) 1 else 0) + (if (c1) 1 else 0) + (if (c2) 1 else 0) + (if (c3) 1 else 0)) {
+            1, 3 -> true
+            // Two cells only touching along the edge, not sharing a face
+            2 -> c0 == c2
+            else -> false
+        }
+    }
+
+    private fun emitLine(axis: Int, start: Long, end: Int, color: Int, sink: LineSink) {
+        val u = unpack(start, 2).toFloat()
+        val v = unpack(start, 1).toFloat()
+        val a1 = unpack(start, 0).toFloat()
+        val a2 = end.toFloat()
+
+        when (axis) {
+            AXIS_X -> sink.line(a1, u, v, a2, u, v, color)
+            AXIS_Y -> sink.line(u, a1, v, u, a2, v, color)
+            else -> sink.line(u, v, a1, u, v, a2, color)
+        }
+    }
+
+    private fun cell(axis: Int, u: Int, v: Int, a: Int): Long = when (axis) {
+        AXIS_X -> pack(a, u, v)
+        AXIS_Y -> pack(u, a, v)
+        else -> pack(u, v, a)
+    }
+
+    private fun pack(first: Int, second: Int, third: Int): Long =
+        ((first + OFFSET).toLong() shl (2 * BITS)) or
+                ((second + OFFSET).toLong() shl BITS) or
+                (third + OFFSET).toLong()
+
+    // Slot 2 is the first packed value, 0 the last
+    private fun unpack(packed: Long, slot: Int): Int = ((packed shr (slot * BITS)) and MASK).toInt() - OFFSET
+}
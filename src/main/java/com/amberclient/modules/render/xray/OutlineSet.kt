@@ -0,0 +1,39 @@
+package com.amberclient.modules.render.xray
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap
+import it.unimi.dsi.fastutil.longs.Long2IntMaps
+
+/**
+ * Immutable copy of the results of one chunk, handed to the renderer.
+ *
+ * Positions are packed with [net.minecraft.util.math.BlockPos.asLong] and colors are packed ARGB
+ * (see [BlockStore.Snapshot]), stored in two parallel arrays instead of one object per block.
+ */
+internal class OutlineSet private constructor(private val positions: LongArray, private val colors: IntArray) {
+
+    val size: Int
+        get() = positions.size
+
+    fun isEmpty(): Boolean = positions.isEmpty()
+
+    fun getPos(index: Int): Long = positions[index]
+
+    fun getColor(index: Int): Int = colors[index]
+
+    companion object {
+        fun of(blocks: Long2IntMap): OutlineSet {
+            val positions = LongArray(blocks.size)
+            val colors = IntArray(blocks.size)
+            var index = 0
+
+            val iterator = Long2IntMaps.fastIterator(blocks)
+            while (iterator.hasNext()) {
+                val entry = iterator.next()
+                positions[index] = entry.longKey
+                colors[index] = entry.intValue
+                index++
+            }
+            return OutlineSet(positions, colors)
+        }
+    }
+}
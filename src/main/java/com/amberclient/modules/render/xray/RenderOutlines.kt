@@ -1,82 +1,81 @@
 package com.amberclient.modules.render.xray
 
-import net.minecraft.client.render.BuiltBuffer;
+import com.amberclient.utils.module.ModuleProfiler
 import com.mojang.blaze3d.systems.RenderSystem
-import net.minecraft.client.render.Tessellator
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
 import net.minecraft.client.gl.GlUsage
 import net.minecraft.client.render.*
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext
-import net.minecraft.client.render.BufferRenderer
 import net.minecraft.client.gl.ShaderProgramKeys
 import net.minecraft.client.gl.VertexBuffer
-import net.minecraft.client.util.math.MatrixStack
 import net.minecraft.client.util.BufferAllocator
-import net.minecraft.util.math.Vec3d
+import net.minecraft.util.math.BlockPos
+import net.minecraft.util.math.Box
+import net.minecraft.util.math.ChunkPos
+import net.minecraft.util.math.ColorHelper
 import org.apache.logging.log4j.LogManager
 import org.joml.Matrix4f
-import java.util.concurrent.atomic.AtomicBoolean
 
+/**
+ * Draws the Xray outlines from one vertex buffer per chunk, kept on the GPU.
+ *
+ * [ScanTask] reports the chunks whose results changed through [chunkChanged], and only their meshes
+ * are rebuilt. Vertices are relative to the chunk origin, so a mesh survives camera movement.
+ * Each frame, meshes outside the frustum or too far away are skipped (see [OutlineCulling]) and the
+ * others are drawn with one call each. With the Merge Outlines setting, a mesh holds the silhouettes
+ * of groups of touching blocks (see [OutlineMesher]) instead of one cube per block.
+ *
+ * Only used from the render thread, which is also the thread [ScanTask] publishes results on.
+ */
 object RenderOutlines {
-    val requestedRefresh = AtomicBoolean(false)
-    var vertexBuffer: VertexBuffer? = null
+    private val meshes = Long2ObjectOpenHashMap<ChunkMesh>()
+    private val pendingChunks = LongOpenHashSet()
+    private val modelView = Matrix4f()
     private val LOGGER = LogManager.getLogger("amberclient-xray")
 
-    fun render(context: WorldRenderContext) {
-        if (ScanTask.renderQueue.isEmpty() || !SettingsStore.getInstance().get().isActive) {
-            return
-        }
-        renderFallback(context)
-    }
-
-    private fun renderWithVertexConsumer(context: WorldRenderContext, immediate: VertexConsumerProvider.Immediate) {
-        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f)
-        RenderSystem.disableDepthTest()
-        RenderSystem.depthMask(false)
-        RenderSystem.enableBlend()
-        RenderSystem.defaultBlendFunc()
-        RenderSystem.disableCull()
-        RenderSystem.lineWidth(4.0f)
+    // DEBUG_LINES vertices per outlined block, 12 edges
+    private const val VERTICES_PER_BOX = 24
 
-        val vertexConsumer = immediate.getBuffer(RenderLayer.getTranslucent())
-        val cameraPos = context.camera().pos
-        val matrixStack = context.matrixStack()
-
-        // Handle nullable MatrixStack
-        if (matrixStack != null) {
-            matrixStack.push()
-            matrixStack.translate(-cameraPos.x, -cameraPos.y, -cameraPos.z)
+    private class ChunkMesh(val origin: BlockPos, val bounds: Box, val buffer: VertexBuffer)
 
-            for (blockProps in ScanTask.renderQueue) {
-                if (blockProps == null) continue
-
-                val size = 1.0f
-                val x = blockProps.pos.x.toFloat()
-                val y = blockProps.pos.y.toFloat()
-                val z = blockProps.pos.z.toFloat()
-                val red = blockProps.color.red() / 255f
-                val green = blockProps.color.green() / 255f
-                val blue = blockProps.color.blue() / 255f
-                val alpha = 1.0f
+    /**
+     * Rebuilds the mesh of the chunk on the next frame, or drops it if the chunk has no results anymore.
+     */
+    fun chunkChanged(chunkKey: Long) {
+        pendingChunks.add(chunkKey)
+    }
 
-                renderLineBoxWithConsumer(vertexConsumer, matrixStack,
-                    x, y, z, x + size, y + size, z + size,
-                    red, green, blue, alpha)
-            }
+    /**
+     * Rebuilds every mesh on the next frame, chunks that lost their results drop theirs.
+     */
+    fun invalidateAll() {
+        pendingChunks.addAll(meshes.keys)
+    }
 
-            matrixStack.pop()
+    fun render(context: WorldRenderContext) {
+        val settings = SettingsStore.getInstance().get()
+        if (!settings.isActive) {
+            release()
+            return
         }
 
-        immediate.draw()
+        val start = ModuleProfiler.begin()
+        if (!pendingChunks.isEmpty()) {
+            rebuildPendingMeshes()
+        }
 
-        RenderSystem.depthMask(true)
-        RenderSystem.enableDepthTest()
-        RenderSystem.disableBlend()
-        RenderSystem.enableCull()
-        RenderSystem.lineWidth(1.0f)
+        if (!meshes.isEmpty()) {
+            draw(context, OutlineCulling.maxDistance(settings.halfRange))
+        }
+        ModuleProfiler.end("XRay", ModuleProfiler.Phase.RENDER, start)
     }
 
-    private fun renderFallback(context: WorldRenderContext) {
-        if (!SettingsStore.getInstance().get().isActive) return
+    private fun draw(context: WorldRenderContext, maxDistance: Double) {
+        val cameraPos = context.camera().pos
+        val frustum = context.frustum()
+        val baseModelView = Matrix4f(RenderSystem.getModelViewMatrix())
+        context.matrixStack()?.let { baseModelView.mul(it.peek().positionMatrix) }
 
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f)
         RenderSystem.disableDepthTest()
@@ -85,69 +84,20 @@ object RenderOutlines {
         RenderSystem.defaultBlendFunc()
         RenderSystem.disableCull()
         RenderSystem.lineWidth(4.0f)
-
-        val tessellator = Tessellator.getInstance()
-        val bufferBuilder = tessellator.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR)
-
-        RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR)
-
-        val cameraPos = context.camera().pos
-        val matrixStack = context.matrixStack()
-
-        // Handle nullable MatrixStack
-        if (matrixStack != null) {
-            matrixStack.push()
-            matrixStack.translate(-cameraPos.x, -cameraPos.y, -cameraPos.z)
-
-            for (blockProps in ScanTask.renderQueue) {
-                if (blockProps == null) continue
-
-                val size = 1.0f
-                val x = blockProps.pos.x.toFloat()
-                val y = blockProps.pos.y.toFloat()
-                val z = blockProps.pos.z.toFloat()
-                val red = blockProps.color.red() / 255f
-                val green = blockProps.color.green() / 255f
-                val blue = blockProps.color.blue() / 255f
-                val alpha = 1.0f
-
-                val matrix = matrixStack.peek().positionMatrix
-
-                // Bottom face
-                bufferBuilder.vertex(matrix, x, y, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y, z).color(red, green, blue, alpha)
-
-                // Top face
-                bufferBuilder.vertex(matrix, x, y + size, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y + size, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y + size, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y + size, z).color(red, green, blue, alpha)
-
-                // Vertical edges
-                bufferBuilder.vertex(matrix, x, y, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y + size, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x + size, y + size, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y, z + size).color(red, green, blue, alpha)
-                bufferBuilder.vertex(matrix, x, y + size, z + size).color(red, green, blue, alpha)
-            }
-
-            matrixStack.pop()
+        val shader = RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR)
+
+        for (mesh in meshes.values) {
+            if (!OutlineCulling.isVisible(mesh.bounds, cameraPos, maxDistance, frustum)) continue
+
+            modelView.set(baseModelView).translate(
+                (mesh.origin.x - cameraPos.x).toFloat(),
+                (mesh.origin.y - cameraPos.y).toFloat(),
+                (mesh.origin.z - cameraPos.z).toFloat()
+            )
+            mesh.buffer.bind()
+            mesh.buffer.draw(modelView, RenderSystem.getProjectionMatrix(), shader)
         }
-
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end())
+        VertexBuffer.unbind()
 
         RenderSystem.depthMask(true)
         RenderSystem.enableDepthTest()
@@ -156,136 +106,116 @@ object RenderOutlines {
         RenderSystem.lineWidth(1.0f)
     }
 
-    private fun rebuildVertexBuffer(context: WorldRenderContext) {
-        requestedRefresh.set(false)
-        vertexBuffer?.close()
-        vertexBuffer = null
-
-        val allocator = BufferAllocator(1024 * 1024)
-        val bufferBuilder = BufferBuilder(allocator, VertexFormat.DrawMode.LINES, VertexFormats.POSITION_COLOR)
-
-        val cameraPos = context.camera().pos
-        val matrixStack = context.matrixStack()
-
-        // Handle nullable MatrixStack
-        if (matrixStack != null) {
-            for (blockProps in ScanTask.renderQueue) {
-                if (blockProps == null) continue
-
-                val size = 1.0f
-                val x = (blockProps.pos.x - cameraPos.x).toFloat()
-                val y = (blockProps.pos.y - cameraPos.y).toFloat()
-                val z = (blockProps.pos.z - cameraPos.z).toFloat()
-                val red = blockProps.color.red() / 255f
-                val green = blockProps.color.green() / 255f
-                val blue = blockProps.color.blue() / 255f
-
-                renderLineBox(bufferBuilder, matrixStack,
-                    x, y, z, x + size, y + size, z + size,
-                    red, green, blue, 0.8f)
+    private fun rebuildPendingMeshes() {
+        val iterator = pendingChunks.iterator()
+        while (iterator.hasNext()) {
+            val chunkKey = iterator.nextLong()
+            val blocks = ScanTask.blocksOf(chunkKey)
+            if (blocks == null || blocks.isEmpty()) {
+                meshes.remove(chunkKey)?.buffer?.close()
+            } else {
+                meshes.put(chunkKey, buildMesh(chunkKey, blocks, meshes.get(chunkKey)?.buffer))
             }
         }
+        pendingChunks.clear()
+    }
 
-        vertexBuffer = VertexBuffer(GlUsage.STATIC_WRITE)
-        val builtBuffer = bufferBuilder.end()
-        vertexBuffer!!.bind()
-        vertexBuffer!!.upload(builtBuffer)
+    private fun buildMesh(chunkKey: Long, blocks: OutlineSet, previous: VertexBuffer?): ChunkMesh {
+        val origin = BlockPos(ChunkPos.getPackedX(chunkKey) shl 4, 0, ChunkPos.getPackedZ(chunkKey) shl 4)
+        var minY = Int.MAX_VALUE
+        var maxY = Int.MIN_VALUE
+        var minX = 16
+        var maxX = 0
+        var minZ = 16
+        var maxZ = 0
+
+        val merged = SettingsStore.getInstance().get().isMergeOutlines
+        val buffer = previous ?: VertexBuffer(GlUsage.STATIC_WRITE)
+        BufferAllocator(blocks.size * VERTICES_PER_BOX * VertexFormats.POSITION_COLOR.vertexSize).use { allocator ->
+            val bufferBuilder = BufferBuilder(allocator, VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR)
+
+            for (i in 0 until blocks.size) {
+                val packed = blocks.getPos(i)
+                val x = BlockPos.unpackLongX(packed) - origin.x
+                val y = BlockPos.unpackLongY(packed)
+                val z = BlockPos.unpackLongZ(packed) - origin.z
+                minX = minOf(minX, x); maxX = maxOf(maxX, x + 1)
+                minY = minOf(minY, y); maxY = maxOf(maxY, y + 1)
+                minZ = minOf(minZ, z); maxZ = maxOf(maxZ, z + 1)
+
+                if (!merged) {
+                    renderLineBox(bufferBuilder, x.toFloat(), y.toFloat(), z.toFloat(),
+                        x + 1.0f, y + 1.0f, z + 1.0f, blocks.getColor(i))
+                }
+            }
 
-        // Fixed: Access indexCount through drawParameters
-        val vertexCount = try {
-            builtBuffer.drawParameters.vertexCount
-        } catch (e: Exception) {
-            LOGGER.warn("Failed to get vertex count from drawParameters", e)
-            0
-        }
+            // Silhouette lines never outnumber the 12 edges per block, so the allocation above still fits
+            if (merged) {
+                OutlineMesher.mesh(blocks, origin.x, origin.z) { x1, y1, z1, x2, y2, z2, color ->
+                    val r = ColorHelper.getRed(color)
+                    val g = ColorHelper.getGreen(color)
+                    val b = ColorHelper.getBlue(color)
+                    bufferBuilder.vertex(x1, y1, z1).color(r, g, b, 255)
+                    bufferBuilder.vertex(x2, y2, z2).color(r, g, b, 255)
+                }
+            }
 
-        val indexCount = try {
-            builtBuffer.drawParameters.indexCount
-        } catch (e: Exception) {
-            LOGGER.warn("Failed to get index count from drawParameters", e)
-            0
+            buffer.bind()
+            buffer.upload(bufferBuilder.end())
+            VertexBuffer.unbind()
         }
 
-        builtBuffer.close()
-        VertexBuffer.unbind()
-        allocator.close()
-        LOGGER.info("Vertex buffer rebuilt, vertexCount: $vertexCount, indexCount: $indexCount")
+        val bounds = Box(
+            (origin.x + minX).toDouble(), minY.toDouble(), (origin.z + minZ).toDouble(),
+            (origin.x + maxX).toDouble(), maxY.toDouble(), (origin.z + maxZ).toDouble()
+        )
+        LOGGER.debug("Xray mesh of chunk {} rebuilt with {} outlines", ChunkPos(chunkKey), blocks.size)
+        return ChunkMesh(origin, bounds, buffer)
     }
 
-    private fun renderLineBoxWithConsumer(consumer: VertexConsumer, matrixStack: MatrixStack,
-                                          x1: Float, y1: Float, z1: Float, x2: Float, y2: Float, z2: Float,
-                                          red: Float, green: Float, blue: Float, alpha: Float) {
-        val matrix = matrixStack.peek().positionMatrix
-
-        // Bottom face
-        consumer.vertex(matrix, x1, y1, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y1, z1).color(red, green, blue, alpha)
-
-        // Top face
-        consumer.vertex(matrix, x1, y2, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y2, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y2, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y2, z1).color(red, green, blue, alpha)
-
-        // Vertical edges
-        consumer.vertex(matrix, x1, y1, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y2, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z1).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x2, y2, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y1, z2).color(red, green, blue, alpha)
-        consumer.vertex(matrix, x1, y2, z2).color(red, green, blue, alpha)
+    private fun release() {
+        for (mesh in meshes.values) {
+            mesh.buffer.close()
+        }
+        meshes.clear()
+        pendingChunks.clear()
     }
 
-    private fun renderLineBox(buffer: BufferBuilder, matrixStack: MatrixStack,
-                              x1: Float, y1: Float, z1: Float, x2: Float, y2: Float, z2: Float,
-                              red: Float, green: Float, blue: Float, alpha: Float) {
-        val matrix = matrixStack.peek().positionMatrix
-
-        val r = (red * 255).toInt()
-        val g = (green * 255).toInt()
-        val b = (blue * 255).toInt()
-        val a = (alpha * 255).toInt()
+    private fun renderLineBox(buffer: BufferBuilder, x1: Float, y1: Float, z1: Float,
+                              x2: Float, y2: Float, z2: Float, color: Int) {
+        val r = ColorHelper.getRed(color)
+        val g = ColorHelper.getGreen(color)
+        val b = ColorHelper.getBlue(color)
+        val a = 255
 
         // Bottom face
-        buffer.vertex(matrix, x1, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
+        buffer.vertex(x1, y1, z1).color(r, g, b, a)
+        buffer.vertex(x2, y1, z1).color(r, g, b, a)
+        buffer.vertex(x2, y1, z1).color(r, g, b, a)
+        buffer.vertex(x2, y1, z2).color(r, g, b, a)
+        buffer.vertex(x2, y1, z2).color(r, g, b, a)
+        buffer.vertex(x1, y1, z2).color(r, g, b, a)
+        buffer.vertex(x1, y1, z2).color(r, g, b, a)
+        buffer.vertex(x1, y1, z1).color(r, g, b, a)
 
         // Top face
-        buffer.vertex(matrix, x1, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
+        buffer.vertex(x1, y2, z1).color(r, g, b, a)
+        buffer.vertex(x2, y2, z1).color(r, g, b, a)
+        buffer.vertex(x2, y2, z1).color(r, g, b, a)
+        buffer.vertex(x2, y2, z2).color(r, g, b, a)
+        buffer.vertex(x2, y2, z2).color(r, g, b, a)
+        buffer.vertex(x1, y2, z2).color(r, g, b, a)
+        buffer.vertex(x1, y2, z2).color(r, g, b, a)
+        buffer.vertex(x1, y2, z1).color(r, g, b, a)
 
         // Vertical edges
-        buffer.vertex(matrix, x1, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z1).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x2, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y1, z2).color(r, g, b, a).normal(0f, 0f, 1f)
-        buffer.vertex(matrix, x1, y2, z2).color(r, g, b, a).normal(0f, 0f, 1f)
+        buffer.vertex(x1, y1, z1).color(r, g, b, a)
+        buffer.vertex(x1, y2, z1).color(r, g, b, a)
+        buffer.vertex(x2, y1, z1).color(r, g, b, a)
+        buffer.vertex(x2, y2, z1).color(r, g, b, a)
+        buffer.vertex(x2, y1, z2).color(r, g, b, a)
+        buffer.vertex(x2, y2, z2).color(r, g, b, a)
+        buffer.vertex(x1, y1, z2).color(r, g, b, a)
+        buffer.vertex(x1, y2, z2).color(r, g, b, a)
     }
-}
\ No newline at end of file
+}
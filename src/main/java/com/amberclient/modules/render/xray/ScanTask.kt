@@ -1,45 +1,85 @@
 package com.amberclient.modules.render.xray
 
-import com.amberclient.utils.core.Color
-import net.minecraft.block.Blocks
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
 import net.minecraft.block.entity.BlockEntity
 import net.minecraft.client.MinecraftClient
 import net.minecraft.entity.player.PlayerEntity
 import net.minecraft.util.math.BlockPos
 import net.minecraft.util.math.ChunkPos
+import net.minecraft.util.math.ChunkSectionPos
 import net.minecraft.client.network.ClientPlayerEntity
-import net.minecraft.world.Heightmap
+import net.minecraft.client.world.ClientWorld
+import net.minecraft.util.math.Direction
 import net.minecraft.world.World
 import net.minecraft.block.BlockState
-import java.util.*
-import java.util.concurrent.atomic.AtomicBoolean
-
-class ScanTask(
-    private val centerChunk: ChunkPos,
-    private val range: Int
+import net.minecraft.world.chunk.PalettedContainer
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Scans a single chunk for the selected blocks on the scan worker pool.
+ *
+ * Results are cached per chunk. [runTask] is called from the client thread and only schedules
+ * chunks that entered the radius or were marked dirty by a block change, snapshotting the
+ * section data the workers read. Each chunk has a generation counter: scheduling a chunk again
+ * or evicting it bumps it, which cancels any scan still running for it and discards its result.
+ */
+class ScanTask private constructor(
+    private val chunkPos: ChunkPos,
+    private val entry: ChunkEntry,
+    private val generation: Int,
+    private val snapshot: SectionSnapshot,
+    private val targets: TargetBlocks,
+    private val exposedOnly: Boolean
 ) : Runnable {
 
     companion object {
-        val renderQueue: MutableSet<BlockPosWithColor> = Collections.synchronizedSet(HashSet())
-        private val isScanning = AtomicBoolean(false)
-        private var playerLastChunk: ChunkPos? = null
         private var forceNextScan = false
 
+        // Per-chunk results and chunks waiting for a rescan, only accessed from the client thread
+        private val chunks = Long2ObjectOpenHashMap<ChunkEntry>()
+        private val dirtyChunks = LongOpenHashSet()
+        private var lastCenter: ChunkPos? = null
+        private var lastRange = 0
+        private var currentTargets: TargetBlocks? = null
+        // Reused across scans, rebuilding it copies the whole color table when lava is shown
+        private var cachedTargets: TargetBlocks? = null
+
+        private val workerIndex = AtomicInteger()
+        private val executor = ForkJoinPool(
+            (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1),
+            { pool ->
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool).apply {
+                    name = "Amber Xray Scanner #${workerIndex.incrementAndGet()}"
+                }
+            },
+            null,
+            true
+        )
+
         fun runTask(centerChunk: ChunkPos, range: Int) {
             runTask(centerChunk, range, false)
         }
 
+        /**
+         * Brings the results up to date around [centerChunk]: chunks that left the radius are evicted,
+         * chunks that entered it or were marked dirty are scanned. [forceScan] rescans the whole radius.
+         */
         fun runTask(centerChunk: ChunkPos, range: Int, forceScan: Boolean) {
             val client = MinecraftClient.getInstance()
             if (client.player == null || client.world == null || !SettingsStore.getInstance().get().isActive) {
                 return
             }
 
-            if (forceScan || forceNextScan || playerLocationChanged(client.player!!, centerChunk, range) || playerLastChunk == null) {
-                playerLastChunk = centerChunk
+            // Changed search entries invalidate every cached result
+            val storeChanged = currentTargets != null && currentTargets!!.version != BlockStore.getInstance().version
+            if (forceScan || forceNextScan || storeChanged) {
                 forceNextScan = false
-                client.execute(ScanTask(centerChunk, range))
+                dirtyChunks.addAll(chunks.keys)
             }
+            scheduleScan(client, centerChunk, range)
         }
 
         fun requestForcedScan() {
@@ -47,190 +87,245 @@ class ScanTask(
         }
 
         fun resetLocationTracking() {
-            playerLastChunk = null
             forceNextScan = true
         }
 
+        fun hasDirtyChunks(): Boolean = !dirtyChunks.isEmpty()
+
+        /**
+         * @return The current results of the chunk, or null if it has none. Client thread only.
+         */
+        internal fun blocksOf(chunkKey: Long): OutlineSet? = chunks.get(chunkKey)?.getOutlines()
+
+        /**
+         * Cancels running scans and drops every result.
+         */
+        fun clear() {
+            for (entry in chunks.values) {
+                entry.generation++
+            }
+            chunks.clear()
+            dirtyChunks.clear()
+            RenderOutlines.invalidateAll()
+            lastCenter = null
+            currentTargets = null
+        }
+
         fun blockBroken(world: World, player: PlayerEntity, blockPos: BlockPos, blockState: BlockState, blockEntity: BlockEntity?) {
             if (player !is ClientPlayerEntity) return
             if (!SettingsStore.getInstance().get().isActive) return
-            if (renderQueue.any { it.pos == blockPos }) {
-                runTask(player.chunkPos, SettingsStore.getInstance().get().halfRange, true)
-            }
+            blockChanged(blockPos)
         }
 
-        private fun playerLocationChanged(player: ClientPlayerEntity, currentChunk: ChunkPos, range: Int): Boolean {
-            val lastChunk = playerLastChunk ?: return true
-            return currentChunk.x > lastChunk.x + range || currentChunk.x < lastChunk.x - range ||
-                    currentChunk.z > lastChunk.z + range || currentChunk.z < lastChunk.z - range
+        /**
+         * Queues a scan of a chunk the server just sent, if it lies within the current radius.
+         */
+        fun chunkLoaded(chunkPos: ChunkPos) {
+            val center = lastCenter ?: return
+            if (Math.abs(chunkPos.x - center.x) <= lastRange && Math.abs(chunkPos.z - center.z) <= lastRange) {
+                dirtyChunks.add(chunkPos.toLong())
+            }
         }
-    }
 
-    override fun run() {
-        if (isScanning.get()) {
-            return
+        /**
+         * Updates the results for a single changed block, and for its neighbours when their
+         * exposure may have changed, without rescanning the chunk.
+         */
+        fun blockChanged(pos: BlockPos) {
+            val world = MinecraftClient.getInstance().world ?: return
+            val targets = currentTargets ?: return
+            val exposedOnly = SettingsStore.getInstance().get().isExposedOnly
+            val mutable = BlockPos.Mutable()
+            val lookup = BlockStateLookup { x, y, z -> world.getBlockState(mutable.set(x, y, z)) }
+
+            updateBlock(world, lookup, targets, exposedOnly, pos)
+            if (exposedOnly) {
+                for (direction in Direction.values()) {
+                    updateBlock(world, lookup, targets, true, pos.offset(direction))
+                }
+            }
         }
 
-        isScanning.set(true)
-        val blocks = collectBlocks()
-        renderQueue.clear()
-        renderQueue.addAll(blocks)
-        isScanning.set(false)
-        RenderOutlines.requestedRefresh.set(true)
-    }
+        private fun updateBlock(world: ClientWorld, lookup: BlockStateLookup, targets: TargetBlocks, exposedOnly: Boolean, pos: BlockPos) {
+            val chunkKey = ChunkPos.toLong(pos.x shr 4, pos.z shr 4)
+            val entry = chunks.get(chunkKey) ?: return
 
-    private fun collectBlocks(): Set<BlockPosWithColor> {
-        val blocks = BlockStore.getInstance().getCache().get()
-        if (blocks.isEmpty()) {
-            return HashSet()
-        }
-
-        val instance = MinecraftClient.getInstance()
-        val world = instance.world ?: return HashSet()
-        val player = instance.player ?: return HashSet()
+            // The running scan read the chunk before this change, let a fresh scan pick it up
+            if (entry.scanning) {
+                dirtyChunks.add(chunkKey)
+                return
+            }
 
-        val renderQueue = HashSet<BlockPosWithColor>()
-        val cX = centerChunk.x
-        val cZ = centerChunk.z
-        val exposedOnly = SettingsStore.getInstance().get().isExposedOnly
+            val color = targets.colorOf(world.getBlockState(pos))
+            val visible = color != BlockStore.Snapshot.NONE && (!exposedOnly || BlockExposure.isExposed(lookup, pos.x, pos.y, pos.z))
+            val key = pos.asLong()
+            val previous = entry.blocks.get(key)
 
-        for (i in (cX - range)..(cX + range)) {
-            for (j in (cZ - range)..(cZ + range)) {
-                if (!world.isChunkLoaded(i, j)) {
-                    continue
+            if (!visible) {
+                if (previous != BlockStore.Snapshot.NONE) {
+                    entry.blocks.remove(key)
+                    entry.changed()
+                    RenderOutlines.chunkChanged(chunkKey)
                 }
+                return
+            }
 
-                val chunkStartX = i shl 4
-                val chunkStartZ = j shl 4
-
-                for (k in chunkStartX until chunkStartX + 16) {
-                    for (l in chunkStartZ until chunkStartZ + 16) {
-                        val topY = world.getTopY(Heightmap.Type.WORLD_SURFACE, k, l)
-                        for (m in world.bottomY until topY) {
-                            val pos = BlockPos(k, m, l)
-                            val color = isValidBlock(pos, world, blocks)
-                            if (color != null) {
-                                if (!exposedOnly || isBlockExposed(pos, world)) {
-                                    renderQueue.add(BlockPosWithColor(pos, color))
-                                }
-                            }
-                        }
+            if (previous != color) {
+                entry.blocks.put(key, color)
+                entry.changed()
+                RenderOutlines.chunkChanged(chunkKey)
+            }
+        }
+
+        private fun scheduleScan(client: MinecraftClient, centerChunk: ChunkPos, range: Int) {
+            val world = client.world ?: return
+            val settings = SettingsStore.getInstance().get()
+            val targets = targetsFor(settings.isShowLava)
+
+            evictOutside(centerChunk, range)
+            if (targets.isEmpty()) {
+                clear()
+                return
+            }
+            lastCenter = centerChunk
+            lastRange = range
+            currentTargets = targets
+
+            // Only chunks without results, or whose blocks changed since their last scan
+            val pending = ArrayList<ChunkPos>()
+            for (i in (centerChunk.x - range)..(centerChunk.x + range)) {
+                for (j in (centerChunk.z - range)..(centerChunk.z + range)) {
+                    val key = ChunkPos.toLong(i, j)
+                    if ((!chunks.containsKey(key) || dirtyChunks.contains(key)) && world.isChunkLoaded(i, j)) {
+                        pending.add(ChunkPos(i, j))
                     }
                 }
             }
-        }
+            dirtyChunks.clear()
 
-        return renderQueue
-    }
+            if (pending.isEmpty()) {
+                return
+            }
 
-    private fun isValidBlock(pos: BlockPos, world: World, blocks: Set<BlockSearchEntry>): Color? {
-        val state = world.getBlockState(pos)
-        if (state.isAir) {
-            return null
+            val snapshot = SectionSnapshot.capture(world, pending, targets, settings.isExposedOnly)
+            for (chunkPos in pending) {
+                val entry = chunks.computeIfAbsent(chunkPos.toLong()) { ChunkEntry() }
+                val generation = ++entry.generation
+                entry.scanning = true
+                executor.execute(ScanTask(chunkPos, entry, generation, snapshot, targets, settings.isExposedOnly))
+            }
         }
 
-        if (SettingsStore.getInstance().get().isShowLava && state.block == Blocks.LAVA) {
-            return Color(255, 69, 0, 255)
+        private fun targetsFor(showLava: Boolean): TargetBlocks {
+            val cached = cachedTargets
+            if (cached != null && cached.version == BlockStore.getInstance().version && cached.showLava == showLava) {
+                return cached
+            }
+            return TargetBlocks(BlockStore.getInstance().getSnapshot(), showLava).also { cachedTargets = it }
         }
 
-        val defaultState = state.block.defaultState
-
-        return blocks.firstOrNull { entry ->
-            (entry.isDefault && defaultState == entry.state) ||
-                    (!entry.isDefault && state == entry.state)
-        }?.color
-    }
-
-    private fun isBlockExposed(pos: BlockPos, world: World): Boolean {
-        val adjacentPositions = arrayOf(
-            pos.up(),    // Y+1
-            pos.down(),  // Y-1
-            pos.north(), // Z-1
-            pos.south(), // Z+1
-            pos.east(),  // X+1
-            pos.west()   // X-1
-        )
-
-        for (adjacentPos in adjacentPositions) {
-            val adjacentState = world.getBlockState(adjacentPos)
-
-            if (adjacentState.isAir ||
-                !adjacentState.isOpaque ||
-                !adjacentState.fluidState.isEmpty ||
-                isNaturalCavity(adjacentPos, world)) {
-                return true
+        private fun evictOutside(centerChunk: ChunkPos, range: Int) {
+            val iterator = chunks.long2ObjectEntrySet().iterator()
+            while (iterator.hasNext()) {
+                val mapEntry = iterator.next()
+                val x = ChunkPos.getPackedX(mapEntry.longKey)
+                val z = ChunkPos.getPackedZ(mapEntry.longKey)
+                if (Math.abs(x - centerChunk.x) > range || Math.abs(z - centerChunk.z) > range) {
+                    mapEntry.value.generation++
+                    RenderOutlines.chunkChanged(mapEntry.longKey)
+                    iterator.remove()
+                }
             }
         }
 
-        return false
-    }
-
-    private fun isNaturalCavity(pos: BlockPos, world: World): Boolean {
-        val state = world.getBlockState(pos)
-
-        if (state.isAir) {
-            var airCount = 0
-            val checkRadius = 2
-
-            for (x in -checkRadius..checkRadius) {
-                for (y in -checkRadius..checkRadius) {
-                    for (z in -checkRadius..checkRadius) {
-                        if (x == 0 && y == 0 && z == 0) continue
-
-                        val checkPos = pos.add(x, y, z)
-                        if (world.getBlockState(checkPos).isAir) {
-                            airCount++
+        /**
+         * Adds the target blocks of one section to [found], read straight from its block state container.
+         * [lookup] resolves the neighbours across the section border for the exposure check.
+         */
+        internal fun scanSection(container: PalettedContainer<BlockState>, sectionKey: Long, targets: TargetBlocks,
+                                 exposedOnly: Boolean, lookup: BlockStateLookup, found: Long2IntOpenHashMap) {
+            val baseX = ChunkSectionPos.unpackX(sectionKey) shl 4
+            val baseY = ChunkSectionPos.unpackY(sectionKey) shl 4
+            val baseZ = ChunkSectionPos.unpackZ(sectionKey) shl 4
+
+            for (y in 0 until 16) {
+                for (z in 0 until 16) {
+                    for (x in 0 until 16) {
+                        val color = targets.colorOf(container.get(x, y, z))
+                        if (color == BlockStore.Snapshot.NONE) continue
+
+                        if (!exposedOnly || BlockExposure.isExposed(lookup, container, baseX, baseY, baseZ, x, y, z)) {
+                            found.put(BlockPos.asLong(baseX + x, baseY + y, baseZ + z), color)
                         }
                     }
                 }
             }
-
-            val totalBlocks = (checkRadius * 2 + 1).let { it * it * it }
-            return airCount > totalBlocks * 0.3
         }
 
-        return false
+        // Runs on the client thread, so the render set is never modified while a frame draws it
+        private fun publish(chunkPos: ChunkPos, entry: ChunkEntry, generation: Int, blocks: Long2IntOpenHashMap) {
+            if (entry.generation != generation || chunks.get(chunkPos.toLong()) !== entry
+                || !SettingsStore.getInstance().get().isActive) {
+                return
+            }
+
+            entry.blocks = blocks
+            entry.changed()
+            entry.scanning = false
+            RenderOutlines.chunkChanged(chunkPos.toLong())
+        }
     }
 
-    private fun isBlockNearSurface(pos: BlockPos, world: World): Boolean {
-        val surfaceY = world.getTopY(Heightmap.Type.WORLD_SURFACE, pos.x, pos.z)
-        val maxDepth = 10
+    override fun run() {
+        if (entry.generation != generation) {
+            return
+        }
 
-        return pos.y >= (surfaceY - maxDepth)
+        val blocks = collectBlocks() ?: return
+        MinecraftClient.getInstance().execute { publish(chunkPos, entry, generation, blocks) }
     }
 
-    private fun isBlockExposedAndNearSurface(pos: BlockPos, world: World): Boolean {
-        if (!isBlockExposed(pos, world)) {
-            return false
-        }
+    /**
+     * @return The matching blocks of the chunk, or null if the scan went stale
+     */
+    private fun collectBlocks(): Long2IntOpenHashMap? {
+        val found = Long2IntOpenHashMap()
+        val sections = snapshot.getTargetSections(chunkPos)
 
-        val surfaceY = world.getTopY(Heightmap.Type.WORLD_SURFACE, pos.x, pos.z)
-        val maxDepthFromSurface = 15
+        for (s in 0 until sections.size) {
+            if (entry.generation != generation) {
+                return null
+            }
+
+            val key = sections.getLong(s)
+            val container = snapshot.getSection(key) ?: continue
+            scanSection(container, key, targets, exposedOnly, snapshot, found)
+        }
 
-        return pos.y >= (surfaceY - maxDepthFromSurface)
+        return found
     }
+}
 
-    private fun isBlockInLargeAirPocket(pos: BlockPos, world: World): Boolean {
-        var airBlockCount = 0
-        var totalBlocksChecked = 0
-        val radius = 2
+/**
+ * Scan state of one chunk. The generation is bumped whenever the chunk is rescanned or evicted.
+ */
+internal class ChunkEntry {
+    @Volatile
+    var generation = 0
 
-        for (x in -radius..radius) {
-            for (y in -radius..radius) {
-                for (z in -radius..radius) {
-                    if (x == 0 && y == 0 && z == 0) continue
+    // True from scheduling until the latest scan is published, block updates can't be applied meanwhile
+    var scanning = false
 
-                    val checkPos = pos.add(x, y, z)
-                    val state = world.getBlockState(checkPos)
+    // Packed color by packed block position, so a single block can be updated in place.
+    // Absent positions read as BlockStore.Snapshot.NONE
+    var blocks = Long2IntOpenHashMap()
 
-                    if (state.isAir) {
-                        airBlockCount++
-                    }
-                    totalBlocksChecked++
-                }
-            }
-        }
+    // Copy handed to the renderer, taken on demand and dropped whenever the results change
+    private var outlines: OutlineSet? = null
 
-        return (airBlockCount.toDouble() / totalBlocksChecked) > 0.3
+    fun changed() {
+        outlines = null
     }
-}
\ No newline at end of file
+
+    fun getOutlines(): OutlineSet = outlines ?: OutlineSet.of(blocks).also { outlines = it }
+}
@@ -0,0 +1,108 @@
+package com.amberclient.modules.render.xray
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongArrayList
+import it.unimi.dsi.fastutil.longs.LongList
+import net.minecraft.block.BlockState
+import net.minecraft.block.Blocks
+import net.minecraft.client.world.ClientWorld
+import net.minecraft.util.math.ChunkPos
+import net.minecraft.util.math.ChunkSectionPos
+import net.minecraft.world.chunk.PalettedContainer
+
+/**
+ * Copies of the chunk sections a scan needs, taken on the client thread so the scan
+ * workers never read block data the client is modifying.
+ *
+ * Only sections whose palette holds a target state are copied, plus their six neighbours
+ * when exposure has to be checked. Missing sections read as air.
+ */
+internal class SectionSnapshot private constructor() : BlockStateLookup {
+    private val sections = Long2ObjectOpenHashMap<PalettedContainer<BlockState>>()
+    private val targetSections = Long2ObjectOpenHashMap<LongArrayList>()
+
+    fun getSection(sectionKey: Long): PalettedContainer<BlockState>? = sections.get(sectionKey)
+
+    /**
+     * @return Keys of the sections of the chunk that contain at least one target state
+     */
+    fun getTargetSections(chunkPos: ChunkPos): LongList = targetSections.get(chunkPos.toLong()) ?: EMPTY
+
+    override fun getBlockState(x: Int, y: Int, z: Int): BlockState {
+        val container = sections.get(ChunkSectionPos.asLong(x shr 4, y shr 4, z shr 4)) ?: return AIR
+        return container.get(x and 15, y and 15, z and 15)
+    }
+
+    companion object {
+        private val AIR: BlockState = Blocks.AIR.defaultState
+        private val EMPTY: LongList = LongArrayList()
+
+        /**
+         * Palette check of a section: false when none of its states is a target, without reading its blocks.
+         */
+        fun containsTarget(container: PalettedContainer<BlockState>, targets: TargetBlocks): Boolean =
+            container.hasAny(targets::matches)
+
+        fun capture(world: ClientWorld, chunks: Collection<ChunkPos>, targets: TargetBlocks, withNeighbors: Boolean): SectionSnapshot {
+            val snapshot = SectionSnapshot()
+
+            for (chunkPos in chunks) {
+                val chunk = world.getChunk(chunkPos.x, chunkPos.z)
+                val sectionArray = chunk.sectionArray
+                val keys = LongArrayList()
+
+                for (index in sectionArray.indices) {
+                    val section = sectionArray[index]
+                    if (section.isEmpty || !containsTarget(section.blockStateContainer, targets)) {
+                        continue
+                    }
+
+                    val key = ChunkSectionPos.asLong(chunkPos.x, chunk.sectionIndexToCoord(index), chunkPos.z)
+                    snapshot.sections.computeIfAbsent(key) { section.blockStateContainer.copy() }
+                    keys.add(key)
+                }
+
+                if (!keys.isEmpty) {
+                    snapshot.targetSections.put(chunkPos.toLong(), keys)
+                }
+            }
+
+            if (withNeighbors) {
+                for (keys in snapshot.targetSections.values) {
+                    for (i in 0 until keys.size) {
+                        val key = keys.getLong(i)
+                        val x = ChunkSectionPos.unpackX(key)
+                        val y = ChunkSectionPos.unpackY(key)
+                        val z = ChunkSectionPos.unpackZ(key)
+
+                        snapshot.copyNeighbor(world, x + 1, y, z)
+                        snapshot.copyNeighbor(world, x - 1, y, z)
+                        snapshot.copyNeighbor(world, x, y + 1, z)
+                        snapshot.copyNeighbor(world, x, y - 1, z)
+                        snapshot.copyNeighbor(world, x, y, z + 1)
+                        snapshot.copyNeighbor(world, x, y, z - 1)
+                    }
+                }
+            }
+
+            return snapshot
+        }
+    }
+
+    private fun copyNeighbor(world: ClientWorld, x: Int, y: Int, z: Int) {
+        val key = ChunkSectionPos.asLong(x, y, z)
+        if (sections.containsKey(key) || !world.isChunkLoaded(x, z)) {
+            return
+        }
+
+        val index = world.sectionCoordToIndex(y)
+        if (index < 0 || index >= world.countVerticalSections()) {
+            return
+        }
+
+        val section = world.getChunk(x, z).getSection(index)
+        if (!section.isEmpty) {
+            sections.put(key, section.blockStateContainer.copy())
+        }
+    }
+}
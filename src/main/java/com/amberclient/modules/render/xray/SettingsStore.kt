@@ -22,6 +22,7 @@ class SettingsStore private constructor() {
         var isActive: Boolean = false
         var isExposedOnly: Boolean = false
         var isShowLava: Boolean = false
+        var isMergeOutlines: Boolean = true
         var halfRange: Int = 4
         var isOreSim: Boolean = false
     }
@@ -0,0 +1,40 @@
+package com.amberclient.modules.render.xray
+
+import net.minecraft.block.Block
+import net.minecraft.block.BlockState
+import net.minecraft.block.Blocks
+
+/**
+ * Color table of a scan: the [BlockStore] table, plus lava when it is shown.
+ * Matching a block state is a single array load.
+ */
+internal class TargetBlocks(snapshot: BlockStore.Snapshot, val showLava: Boolean) {
+    val version = snapshot.version
+    private val colors: IntArray
+    private val empty: Boolean
+
+    init {
+        if (showLava) {
+            colors = snapshot.colors.copyOf()
+            for (state in Blocks.LAVA.stateManager.states) {
+                colors[Block.getRawIdFromState(state)] = LAVA_COLOR
+            }
+        } else {
+            colors = snapshot.colors
+        }
+        empty = snapshot.entries.isEmpty() && !showLava
+    }
+
+    fun isEmpty(): Boolean = empty
+
+    fun matches(state: BlockState): Boolean = colorOf(state) != BlockStore.Snapshot.NONE
+
+    /**
+     * @return The packed ARGB color of [state], or [BlockStore.Snapshot.NONE]
+     */
+    fun colorOf(state: BlockState): Int = colors[Block.getRawIdFromState(state)]
+
+    companion object {
+        private const val LAVA_COLOR = (255 shl 24) or (255 shl 16) or (69 shl 8)
+    }
+}
@@ -1,10 +1,15 @@
 package com.amberclient.modules.render.xray
 
+import com.amberclient.events.core.EventListener
+import com.amberclient.events.world.BlockUpdateEvent
+import com.amberclient.events.world.ChunkDataEvent
 import com.amberclient.utils.module.Module
 import com.amberclient.utils.module.ConfigurableModule
 import com.amberclient.utils.module.ModuleCategory
 import com.amberclient.utils.module.ModuleSettings
+import com.amberclient.utils.module.TickScheduler
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents
+import net.fabricmc.fabric.api.event.client.player.ClientPlayerBlockBreakEvents
 import net.minecraft.client.MinecraftClient
 import net.minecraft.text.Text
 import net.minecraft.util.math.ChunkPos
@@ -24,6 +29,7 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
     private val chunkRadius: ModuleSettings
     private val exposedOnly: ModuleSettings
     private val showLava: ModuleSettings
+    private val mergeOutlines: ModuleSettings
     private val settings: List<ModuleSettings>
 
     init {
@@ -31,10 +37,18 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
         chunkRadius = ModuleSettings("Chunk Radius", "Number of chunks to scan around the player", 1.0, 1.0, 8.0, 1.0)
         exposedOnly = ModuleSettings("Exposed Only", "Show only ores exposed to air", false)
         showLava = ModuleSettings("Show Lava", "Show lava with the ores", false)
+        mergeOutlines = ModuleSettings("Merge Outlines", "Outline touching blocks of the same color as one shape", true)
 
-        settings = listOf(chunkRadius, exposedOnly, showLava)
+        settings = listOf(chunkRadius, exposedOnly, showLava, mergeOutlines)
 
         WorldRenderEvents.AFTER_TRANSLUCENT.register(RenderOutlines::render)
+        // Own block breaks are predicted client-side and never come back as a block update
+        ClientPlayerBlockBreakEvents.AFTER.register { world, player, pos, state ->
+            ScanTask.blockBroken(world, player, pos, state, null)
+        }
+
+        // Rescanning after a chunk change can slip a few ticks when the tick budget is tight
+        schedule("Chunk rescan", 1, 0.05, TickScheduler.Priority.LOW) { checkPlayerChunk() }
     }
 
     override fun onEnable() {
@@ -42,6 +56,7 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
         settingsStore.isActive = true
         settingsStore.isExposedOnly = exposedOnly.booleanValue
         settingsStore.isShowLava = showLava.booleanValue
+        settingsStore.isMergeOutlines = mergeOutlines.booleanValue
         settingsStore.halfRange = chunkRadius.doubleValue.toInt()
 
         ScanTask.resetLocationTracking()
@@ -56,19 +71,19 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
 
     override fun onDisable() {
         SettingsStore.getInstance().get().isActive = false
-        ScanTask.renderQueue.clear()
+        ScanTask.clear()
         lastPlayerChunk = null
         wasActive = false
     }
 
-    override fun onTick() {
+    private fun checkPlayerChunk() {
         val settingsStore = SettingsStore.getInstance().get()
         if (settingsStore.isActive) {
             val client = MinecraftClient.getInstance()
             val player = client.player ?: return
 
             val currentChunk = player.chunkPos
-            if (currentChunk != lastPlayerChunk || !wasActive) {
+            if (currentChunk != lastPlayerChunk || !wasActive || ScanTask.hasDirtyChunks()) {
                 ScanTask.runTask(currentChunk, settingsStore.halfRange)
                 lastPlayerChunk = currentChunk
                 wasActive = true
@@ -76,6 +91,20 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
         }
     }
 
+    @EventListener
+    fun onBlockUpdate(event: BlockUpdateEvent) {
+        if (SettingsStore.getInstance().get().isActive) {
+            ScanTask.blockChanged(event.pos)
+        }
+    }
+
+    @EventListener
+    fun onChunkData(event: ChunkDataEvent) {
+        if (SettingsStore.getInstance().get().isActive) {
+            ScanTask.chunkLoaded(event.chunk.pos)
+        }
+    }
+
     override fun getSettings(): List<ModuleSettings> = settings
 
     override fun onSettingChanged(setting: ModuleSettings) {
@@ -114,6 +143,15 @@ class Xray : Module("XRay", "Shows the outlines of the selected ores in the chun
                     ScanTask.runTask(player.chunkPos, settingsStore.halfRange, true)
                 }
             }
+            mergeOutlines -> {
+                settingsStore.isMergeOutlines = mergeOutlines.booleanValue
+                player.sendMessage(
+                    Text.literal("§6Merge Outlines: §l${if (mergeOutlines.booleanValue) "ON" else "OFF"}"),
+                    true
+                )
+                // The results don't change, only the meshes built from them
+                RenderOutlines.invalidateAll()
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.amberclient.screens;
+
+import com.amberclient.utils.module.ModuleProfiler;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.RenderTickCounter;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Locale;
+
+public class ProfilerOverlay {
+    private static final int BACKGROUND_COLOR = new Color(20, 20, 25, 200).getRGB();
+    private static final int TEXT_COLOR = new Color(220, 220, 220).getRGB();
+    private static final int ACCENT_COLOR = new Color(255, 165, 0).getRGB();
+    private static final int MAX_LINES = 12;
+    private static final long REFRESH_INTERVAL_MS = 500;
+
+    private List<String> lines = List.of();
+    private long lastRefresh;
+
+    public void onHudRender(DrawContext context, RenderTickCounter tickCounter) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        ModuleProfiler profiler = ModuleProfiler.getInstance();
+        if (client.player == null || client.options.hudHidden || !ModuleProfiler.isEnabled() || !profiler.isOverlayVisible()) {
+            return;
+        }
+
+        // The window only moves every half second, no need to sort the samples every frame
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh >= REFRESH_INTERVAL_MS) {
+            lines = profiler.snapshot().stream()
+                    .limit(MAX_LINES)
+                    .map(sample -> String.format(Locale.ROOT, "%s [%s] %.2f ms/s, avg %.1f µs",
+                            sample.name(),
+                            sample.phase().name().toLowerCase(Locale.ROOT),
+                            sample.millisPerSecond(),
+                            sample.averageMicros()))
+                    .toList();
+            lastRefresh = now;
+        }
+
+        String title = String.format(Locale.ROOT, "Module profiler (%.0fs window)", ModuleProfiler.WINDOW_SECONDS);
+
+        int padding = 5;
+        int spacing = 2;
+        int lineHeight = client.textRenderer.fontHeight + spacing;
+        int width = client.textRenderer.getWidth(title);
+        for (String line : lines) {
+            width = Math.max(width, client.textRenderer.getWidth(line));
+        }
+        width += padding * 2;
+        int height = (lines.size() + 1) * lineHeight + padding * 2 - spacing;
+
+        // Position in top-right corner
+        int x = context.getScaledWindowWidth() - width - 5;
+        int y = 5;
+
+        context.fill(x, y, x + width, y + height, BACKGROUND_COLOR);
+        context.fill(x, y, x + width, y + 1, ACCENT_COLOR);
+
+        context.drawTextWithShadow(client.textRenderer, title, x + padding, y + padding, ACCENT_COLOR);
+        for (int i = 0; i < lines.size(); i++) {
+            context.drawTextWithShadow(client.textRenderer, lines.get(i), x + padding, y + padding + (i + 1) * lineHeight, TEXT_COLOR);
+        }
+    }
+}
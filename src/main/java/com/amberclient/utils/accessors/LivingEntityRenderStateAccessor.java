@@ -0,0 +1,8 @@
+package com.amberclient.utils.accessors;
+
+import net.minecraft.entity.LivingEntity;
+
+public interface LivingEntityRenderStateAccessor {
+    LivingEntity amberClient$getEntity();
+    void amberClient$setEntity(LivingEntity entity);
+}
@@ -0,0 +1,279 @@
+package com.amberclient.utils.entity;
+
+import com.amberclient.mixins.accessors.EntityTrackingSectionAccessor;
+import com.amberclient.mixins.accessors.SectionedEntityCacheAccessor;
+import com.amberclient.mixins.accessors.SimpleEntityLookupAccessor;
+import com.amberclient.mixins.accessors.WorldAccessor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.Monster;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.projectile.ProjectileEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.entity.EntityLookup;
+import net.minecraft.world.entity.EntityTrackingSection;
+import net.minecraft.world.entity.SectionedEntityCache;
+import net.minecraft.world.entity.SimpleEntityLookup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Entities of the client world, indexed once per tick for every module that looks for entities.
+ *
+ * Entities are bucketed by {@link Category} and by chunk section. The index is invalidated at the
+ * start of each client tick and rebuilt by the first query, walking the world's entity tracking
+ * sections directly like {@link EntityUtils#intersectsWithEntity}. Box, radius and FOV queries then
+ * only visit the sections they overlap.
+ *
+ * Client thread only. Entities removed since the last rebuild are skipped by the queries.
+ */
+public class EntityIndex {
+    private static final EntityIndex INSTANCE = new EntityIndex();
+
+    // Entity bounding boxes can stick out of the section holding their position
+    private static final double SECTION_MARGIN = 2.0;
+
+    public enum Category {
+        PLAYER,
+        HOSTILE,
+        PASSIVE,
+        PROJECTILE,
+        OTHER;
+
+        public static Category of(Entity entity) {
+            if (entity instanceof PlayerEntity) return PLAYER;
+            if (entity instanceof Monster) return HOSTILE;
+            if (entity instanceof LivingEntity) return PASSIVE;
+            if (entity instanceof ProjectileEntity) return PROJECTILE;
+            return OTHER;
+        }
+    }
+
+    private final Long2ObjectOpenHashMap<List<Entity>> sections = new Long2ObjectOpenHashMap<>();
+    private final List<List<Entity>> byCategory = new ArrayList<>();
+    private final List<Entity> all = new ArrayList<>();
+    private final ArrayDeque<List<Entity>> freeBuckets = new ArrayDeque<>();
+
+    private ClientWorld world;
+    private boolean stale = true;
+
+    private EntityIndex() {
+        for (int i = 0; i < Category.values().length; i++) {
+            byCategory.add(new ArrayList<>());
+        }
+    }
+
+    public static EntityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks the index out of date, it is rebuilt by the next query. Called at the start of each client tick,
+     * also while no world is loaded. Entities of a world that was left or replaced are dropped right away,
+     * so the index never keeps that world reachable.
+     */
+    public void invalidate() {
+        stale = true;
+
+        if (world != null && world != MinecraftClient.getInstance().world) {
+            clear();
+            world = null;
+        }
+    }
+
+    /**
+     * @return Every indexed entity, the list is reused by the next rebuild
+     */
+    public List<Entity> getAll() {
+        ensureFresh();
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * @return The indexed entities of {@code category}, the list is reused by the next rebuild
+     */
+    public List<Entity> get(Category category) {
+        ensureFresh();
+        return Collections.unmodifiableList(byCategory.get(category.ordinal()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<PlayerEntity> getPlayers() {
+        return (List<PlayerEntity>) (List<?>) get(Category.PLAYER);
+    }
+
+    /**
+     * Calls {@code consumer} for each entity whose bounding box intersects {@code box}.
+     */
+    public void forEachInBox(Box box, Consumer<Entity> consumer) {
+        ensureFresh();
+
+        int minX = ChunkSectionPos.getSectionCoord(box.minX - SECTION_MARGIN);
+        int minY = ChunkSectionPos.getSectionCoord(box.minY - SECTION_MARGIN);
+        int minZ = ChunkSectionPos.getSectionCoord(box.minZ - SECTION_MARGIN);
+        int maxX = ChunkSectionPos.getSectionCoord(box.maxX + SECTION_MARGIN);
+        int maxY = ChunkSectionPos.getSectionCoord(box.maxY + SECTION_MARGIN);
+        int maxZ = ChunkSectionPos.getSectionCoord(box.maxZ + SECTION_MARGIN);
+        long sectionCount = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        // Large boxes overlap more sections than there are occupied ones, walk those instead
+        if (sectionCount > sections.size()) {
+            for (Long2ObjectMap.Entry<List<Entity>> entry : Long2ObjectMaps.fastIterable(sections)) {
+                long key = entry.getLongKey();
+                int x = ChunkSectionPos.unpackX(key);
+                int y = ChunkSectionPos.unpackY(key);
+                int z = ChunkSectionPos.unpackZ(key);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                    acceptIntersecting(entry.getValue(), box, consumer);
+                }
+            }
+            return;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    List<Entity> bucket = sections.get(ChunkSectionPos.asLong(x, y, z));
+                    if (bucket != null) {
+                        acceptIntersecting(bucket, box, consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    public List<Entity> inBox(Box box) {
+        List<Entity> result = new ArrayList<>();
+        forEachInBox(box, result::add);
+        return result;
+    }
+
+    /**
+     * @return The entities whose position is within {@code radius} of {@code center}
+     */
+    public List<Entity> inRadius(Vec3d center, double radius) {
+        List<Entity> result = new ArrayList<>();
+        double radiusSq = radius * radius;
+        forEachInBox(new Box(center, center).expand(radius), entity -> {
+            if (entity.squaredDistanceTo(center) <= radiusSq) {
+                result.add(entity);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return The entities within {@code radius} of {@code origin} whose center is at most
+     * {@code fovDegrees / 2} away from the {@code look} direction
+     */
+    public List<Entity> inFov(Vec3d origin, Vec3d look, double radius, double fovDegrees) {
+        if (fovDegrees >= 360.0) {
+            return inRadius(origin, radius);
+        }
+
+        List<Entity> result = new ArrayList<>();
+        double radiusSq = radius * radius;
+        double cosHalfFov = Math.cos(Math.toRadians(fovDegrees / 2.0));
+        Vec3d direction = look.normalize();
+
+        forEachInBox(new Box(origin, origin).expand(radius), entity -> {
+            if (entity.squaredDistanceTo(origin) > radiusSq) return;
+
+            double dx = entity.getX() - origin.x;
+            double dy = entity.getY() + entity.getHeight() / 2.0 - origin.y;
+            double dz = entity.getZ() - origin.z;
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (length == 0.0 || (dx * direction.x + dy * direction.y + dz * direction.z) / length >= cosHalfFov) {
+                result.add(entity);
+            }
+        });
+        return result;
+    }
+
+    private static void acceptIntersecting(List<Entity> bucket, Box box, Consumer<Entity> consumer) {
+        for (int i = 0; i < bucket.size(); i++) {
+            Entity entity = bucket.get(i);
+            if (!entity.isRemoved() && entity.getBoundingBox().intersects(box)) {
+                consumer.accept(entity);
+            }
+        }
+    }
+
+    private void ensureFresh() {
+        ClientWorld current = MinecraftClient.getInstance().world;
+        if (!stale && current == world) return;
+
+        clear();
+        world = current;
+        stale = false;
+        if (current != null) {
+            rebuild(current);
+        }
+    }
+
+    private void rebuild(ClientWorld world) {
+        EntityLookup<Entity> entityLookup = ((WorldAccessor) world).getEntityLookup();
+
+        // Fast path: the entities are already grouped by section in the world's entity cache
+        if (entityLookup instanceof SimpleEntityLookup<Entity> simpleEntityLookup) {
+            SectionedEntityCache<Entity> cache = ((SimpleEntityLookupAccessor) simpleEntityLookup).getCache();
+            Long2ObjectMap<EntityTrackingSection<Entity>> trackingSections = ((SectionedEntityCacheAccessor) cache).getTrackingSections();
+
+            for (Long2ObjectMap.Entry<EntityTrackingSection<Entity>> entry : Long2ObjectMaps.fastIterable(trackingSections)) {
+                EntityTrackingSection<Entity> section = entry.getValue();
+                if (section.isEmpty() || !section.getStatus().shouldTrack()) continue;
+
+                Collection<Entity> entities = ((EntityTrackingSectionAccessor) section).getCollection();
+                List<Entity> bucket = bucket(entry.getLongKey());
+                for (Entity entity : entities) {
+                    add(entity, bucket);
+                }
+            }
+            return;
+        }
+
+        for (Entity entity : world.getEntities()) {
+            add(entity, bucket(ChunkSectionPos.toLong(entity.getBlockPos())));
+        }
+    }
+
+    private List<Entity> bucket(long sectionKey) {
+        List<Entity> bucket = sections.get(sectionKey);
+        if (bucket == null) {
+            bucket = freeBuckets.isEmpty() ? new ArrayList<>() : freeBuckets.pop();
+            sections.put(sectionKey, bucket);
+        }
+        return bucket;
+    }
+
+    private void add(Entity entity, List<Entity> bucket) {
+        bucket.add(entity);
+        all.add(entity);
+        byCategory.get(Category.of(entity).ordinal()).add(entity);
+    }
+
+    // Buckets are kept for the next rebuild, the set of occupied sections barely changes between ticks
+    private void clear() {
+        for (List<Entity> bucket : sections.values()) {
+            bucket.clear();
+            freeBuckets.push(bucket);
+        }
+        sections.clear();
+        all.clear();
+        for (List<Entity> list : byCategory) {
+            list.clear();
+        }
+    }
+}
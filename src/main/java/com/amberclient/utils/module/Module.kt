@@ -1,5 +1,6 @@
 package com.amberclient.utils.module
 
+import com.amberclient.events.core.EventManager
 import com.amberclient.utils.input.keybinds.CustomKeybindManager
 import net.minecraft.client.MinecraftClient
 import net.minecraft.client.option.KeyBinding
@@ -20,6 +21,11 @@ abstract class Module(
     private var keyBinding: KeyBinding? = null
     private var customKeyCode: Int = -1
 
+    // Phase of the client tick at which onTick runs, ticked exactly once per client tick
+    open val tickPhase: TickPhase = TickPhase.POST
+
+    private val scheduledTasks = mutableListOf<TickScheduler.Task>()
+
     fun isEnabled(): Boolean = enabled
 
     fun toggle() {
@@ -32,6 +38,9 @@ abstract class Module(
 
     protected fun enable() {
         enabled = true
+        // Event listeners of a module are only live while it is enabled
+        EventManager.getInstance().register(this)
+        ModuleManager.getInstance().onModuleToggled(this)
 
         val mc = MinecraftClient.getInstance()
         mc.player?.sendMessage(
@@ -52,8 +61,24 @@ abstract class Module(
         )
 
         onDisable()
+        EventManager.getInstance().unregister(this)
+        ModuleManager.getInstance().onModuleToggled(this)
     }
 
+    // Declares periodic work for the tick scheduler, run while the module is enabled. Call from init.
+    protected fun schedule(
+        taskName: String,
+        period: Int,
+        estimatedCostMs: Double,
+        priority: TickScheduler.Priority = TickScheduler.Priority.NORMAL,
+        phase: Int = TickScheduler.AUTO_PHASE,
+        action: Runnable
+    ) {
+        scheduledTasks.add(TickScheduler.Task(this, taskName, period, phase, estimatedCostMs, priority, action))
+    }
+
+    fun getScheduledTasks(): List<TickScheduler.Task> = scheduledTasks
+
     fun setKeyBinding(keyBinding: KeyBinding?) {
         this.keyBinding = keyBinding
     }
@@ -18,6 +18,7 @@ import com.amberclient.modules.render.*;
 import com.amberclient.modules.render.xray.Xray;
 import com.amberclient.modules.world.GhostHand;
 import com.amberclient.modules.world.MacroRecorder.MacroController;
+import com.amberclient.utils.entity.EntityIndex;
 import com.amberclient.utils.input.keybinds.KeybindConfigManager;
 import com.amberclient.utils.input.keybinds.CustomKeybindManager;
 import com.amberclient.utils.input.keybinds.KeybindsManager;
@@ -29,13 +30,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class ModuleManager {
     private static final ModuleManager INSTANCE = new ModuleManager();
+
     private final List<Module> modules = new ArrayList<>();
     private boolean keybindsInitialized = false;
 
+    // Enabled modules per tick phase, so ticking and rendering never filter the full module list
+    private final ModuleTicker ticker = new ModuleTicker();
+    private final TickScheduler scheduler = new TickScheduler();
+
     private ModuleManager() {
         KeybindsManager.INSTANCE.initialize();
         CustomKeybindManager.INSTANCE.initialize();
@@ -68,8 +73,11 @@ public class ModuleManager {
         registerModule(new NoAnimations());
         registerModule(new Tracers());
 
+        // Modules subscribe to events when they get enabled, see Module#enable
         for (Module module : modules) {
-            EventManager.getInstance().register(module);
+            if (module.isEnabled()) {
+                EventManager.getInstance().register(module);
+            }
         }
     }
 
@@ -109,21 +117,30 @@ public class ModuleManager {
         }
     }
 
-    public void onTick() {
+    /**
+     * Ticks the enabled modules that declared {@code phase}, each exactly once per client tick.
+     */
+    public void onTick(TickPhase phase) {
+        if (phase == TickPhase.PRE) {
+            EntityIndex.getInstance().invalidate();
+        }
+
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player == null) return;
 
-        modules.stream()
-                .filter(Module::isEnabled)
-                .forEach(module -> {
-                    try {
-                        module.onTick();
-                    } catch (Exception e) {
-                        System.err.println("Error in " + module.getName() + ": " + e.getMessage());
-                    }
-                });
+        ticker.tick(phase);
 
-        CustomKeybindManager.INSTANCE.tick();
+        if (phase == TickPhase.POST) {
+            scheduler.tick();
+            CustomKeybindManager.INSTANCE.tick();
+        }
+    }
+
+    /**
+     * Called by {@link Module} after it was enabled or disabled.
+     */
+    void onModuleToggled(Module module) {
+        ticker.rebuild();
     }
 
     public List<Module> getModules() {
@@ -131,9 +148,11 @@ public class ModuleManager {
     }
 
     public List<Module> getEnabledModules() {
-        return modules.stream()
-                .filter(Module::isEnabled)
-                .collect(Collectors.toList());
+        return ticker.getEnabledModules();
+    }
+
+    public TickScheduler getScheduler() {
+        return scheduler;
     }
 
     public void toggleModule(Module module) {
@@ -143,6 +162,8 @@ public class ModuleManager {
     public void registerModule(Module module) {
         if (module != null && !modules.contains(module)) {
             modules.add(module);
+            ticker.register(module);
+            module.getScheduledTasks().forEach(scheduler::add);
         }
     }
 
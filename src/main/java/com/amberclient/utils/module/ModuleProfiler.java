@@ -0,0 +1,205 @@
+package com.amberclient.utils.module;
+
+import com.amberclient.events.core.EventManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples how much time each module spends per phase (tick, render, packet) over a rolling window.
+ *
+ * Call sites guard their {@link System#nanoTime()} calls with {@link #isEnabled()}, so a disabled
+ * profiler costs one static field read. While enabled, a sample is a map lookup and a few additions.
+ */
+public final class ModuleProfiler {
+    private static final ModuleProfiler INSTANCE = new ModuleProfiler();
+
+    // The window is split into slots, the oldest slot is dropped as time advances
+    private static final int SLOTS = 10;
+    private static final long SLOT_NANOS = 500_000_000L;
+    public static final double WINDOW_SECONDS = SLOTS * SLOT_NANOS / 1_000_000_000.0;
+
+    private static volatile boolean enabled = false;
+    private volatile boolean overlayVisible = false;
+
+    public enum Phase {
+        TICK,
+        RENDER,
+        PACKET
+    }
+
+    private final Map<String, Section>[] sections;
+
+    @SuppressWarnings("unchecked")
+    private ModuleProfiler() {
+        sections = new Map[Phase.values().length];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static ModuleProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ModuleProfiler.enabled = enabled;
+        EventManager.getInstance().updateInstrumented();
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public void setOverlayVisible(boolean overlayVisible) {
+        this.overlayVisible = overlayVisible;
+    }
+
+    /**
+     * @return The start timestamp to pass to {@link #end}, or 0 if the profiler is disabled
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since {@code start}, as returned by {@link #begin()}.
+     */
+    public static void end(String name, Phase phase, long start) {
+        if (start != 0L) {
+            long now = System.nanoTime();
+            INSTANCE.section(name, phase).add(now, now - start);
+        }
+    }
+
+    /**
+     * Records an already measured duration.
+     */
+    public void record(String name, Phase phase, long nanos) {
+        section(name, phase).add(System.nanoTime(), nanos);
+    }
+
+    private Section section(String name, Phase phase) {
+        Section section = sections[phase.ordinal()].get(name);
+        if (section == null) {
+            section = sections[phase.ordinal()].computeIfAbsent(name, n -> new Section(n, phase));
+        }
+        return section;
+    }
+
+    /**
+     * @return All sections with samples in the current window, most expensive first
+     */
+    public List<Sample> snapshot() {
+        long now = System.nanoTime();
+        List<Sample> samples = new ArrayList<>();
+
+        for (Map<String, Section> phaseSections : sections) {
+            for (Section section : phaseSections.values()) {
+                Sample sample = section.sample(now);
+                if (sample.calls() > 0) {
+                    samples.add(sample);
+                }
+            }
+        }
+
+        samples.sort(Comparator.comparingLong(Sample::totalNanos).reversed());
+        return samples;
+    }
+
+    public void reset() {
+        for (Map<String, Section> phaseSections : sections) {
+            phaseSections.clear();
+        }
+    }
+
+    /**
+     * Writes the current window to {@code file} as CSV, one line per module and phase.
+     */
+    public void exportCsv(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("module,phase,calls,total_ms,avg_us,max_us,ms_per_second\n");
+            for (Sample sample : snapshot()) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.2f,%.2f,%.3f%n",
+                        sample.name(),
+                        sample.phase().name().toLowerCase(Locale.ROOT),
+                        sample.calls(),
+                        sample.totalNanos() / 1_000_000.0,
+                        sample.averageMicros(),
+                        sample.maxNanos() / 1_000.0,
+                        sample.millisPerSecond()));
+            }
+        }
+    }
+
+    /**
+     * Totals of one module and phase over the rolling window.
+     */
+    public record Sample(String name, Phase phase, long calls, long totalNanos, long maxNanos) {
+        public double averageMicros() {
+            return calls == 0 ? 0 : totalNanos / 1_000.0 / calls;
+        }
+
+        public double millisPerSecond() {
+            return totalNanos / 1_000_000.0 / WINDOW_SECONDS;
+        }
+    }
+
+    private static final class Section {
+        private final String name;
+        private final Phase phase;
+        private final long[] epochs = new long[SLOTS];
+        private final long[] calls = new long[SLOTS];
+        private final long[] nanos = new long[SLOTS];
+        private final long[] max = new long[SLOTS];
+
+        private Section(String name, Phase phase) {
+            this.name = name;
+            this.phase = phase;
+        }
+
+        // Packet listeners run on the network thread, hence the lock; it is almost never contended
+        private synchronized void add(long now, long elapsed) {
+            long epoch = now / SLOT_NANOS;
+            int slot = (int) Math.floorMod(epoch, (long) SLOTS);
+            if (epochs[slot] != epoch) {
+                epochs[slot] = epoch;
+                calls[slot] = 0;
+                nanos[slot] = 0;
+                max[slot] = 0;
+            }
+            calls[slot]++;
+            nanos[slot] += elapsed;
+            max[slot] = Math.max(max[slot], elapsed);
+        }
+
+        private synchronized Sample sample(long now) {
+            long epoch = now / SLOT_NANOS;
+            long totalCalls = 0;
+            long totalNanos = 0;
+            long maxNanos = 0;
+
+            for (int i = 0; i < SLOTS; i++) {
+                if (epoch - epochs[i] < SLOTS) {
+                    totalCalls += calls[i];
+                    totalNanos += nanos[i];
+                    maxNanos = Math.max(maxNanos, max[i]);
+                }
+            }
+            return new Sample(name, phase, totalCalls, totalNanos, maxNanos);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.amberclient.utils.module;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Enabled modules of {@link ModuleManager}, split by {@link TickPhase}.
+ *
+ * The arrays are rebuilt when a module is registered already enabled or is toggled, so a client tick
+ * walks one array per phase and never filters the full module list. Modules that do not override
+ * {@link Module#onTick()} are left out of the arrays.
+ */
+final class ModuleTicker {
+    private static final Module[] NO_MODULES = new Module[0];
+
+    private final List<Module> modules = new ArrayList<>();
+
+    private volatile List<Module> enabledModules = List.of();
+    private volatile Module[] preTickModules = NO_MODULES;
+    private volatile Module[] postTickModules = NO_MODULES;
+
+    synchronized void register(Module module) {
+        modules.add(module);
+
+        // Modules enabled by their constructor never go through a toggle
+        if (module.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Called after a registered module was enabled or disabled.
+     */
+    synchronized void rebuild() {
+        List<Module> enabled = new ArrayList<>();
+        List<Module> preTick = new ArrayList<>();
+        List<Module> postTick = new ArrayList<>();
+
+        for (Module m : modules) {
+            if (!m.isEnabled()) continue;
+
+            enabled.add(m);
+            if (overridesOnTick(m)) {
+                (m.getTickPhase() == TickPhase.PRE ? preTick : postTick).add(m);
+            }
+        }
+
+        enabledModules = Collections.unmodifiableList(enabled);
+        preTickModules = preTick.toArray(NO_MODULES);
+        postTickModules = postTick.toArray(NO_MODULES);
+    }
+
+    /**
+     * Ticks the enabled modules that declared {@code phase}, each exactly once.
+     */
+    void tick(TickPhase phase) {
+        for (Module module : phase == TickPhase.PRE ? preTickModules : postTickModules) {
+            long start = ModuleProfiler.begin();
+            try {
+                module.onTick();
+            } catch (Exception e) {
+                System.err.println("Error in " + module.getName() + ": " + e.getMessage());
+            }
+            ModuleProfiler.end(module.getName(), ModuleProfiler.Phase.TICK, start);
+        }
+    }
+
+    List<Module> getEnabledModules() {
+        return enabledModules;
+    }
+
+    private static boolean overridesOnTick(Module module) {
+        try {
+            return module.getClass().getMethod("onTick").getDeclaringClass() != Module.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.amberclient.utils.module
+
+/**
+ * Point of the client tick at which a module's [Module.onTick] runs.
+ */
+enum class TickPhase {
+    /** Start of `MinecraftClient.tick`, before the world and player are updated. */
+    PRE,
+
+    /** End of the client tick (`END_CLIENT_TICK`), after the world and player are updated. */
+    POST
+}
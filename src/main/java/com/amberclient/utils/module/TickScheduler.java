@@ -0,0 +1,225 @@
+package com.amberclient.utils.module;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs periodic module work spread over client ticks under a per-tick time budget.
+ *
+ * Each {@link Task} declares a period, a phase (its offset within the period) and an estimated cost.
+ * Tasks sharing a period are staggered onto the least loaded phase, so modules that used to do
+ * their heavy work on the same {@code tick % n == 0} no longer pile up on a single frame.
+ * When the budget of a tick is spent, {@link Priority#NORMAL} and {@link Priority#LOW} tasks
+ * are deferred to the following ticks; {@link Priority#HIGH} tasks always run on time.
+ */
+public class TickScheduler {
+    public static final int AUTO_PHASE = -1;
+    public static final double DEFAULT_BUDGET_MS = 2.0;
+
+    // A deferred task runs regardless of the budget once it has waited this many ticks
+    private static final int MAX_DEFERRED_TICKS = 20;
+    private static final int OVERRUN_REPORT_INTERVAL = 200;
+    private static final Task[] NO_TASKS = new Task[0];
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private volatile Task[] tasks = NO_TASKS;
+    private volatile long budgetNanos = (long) (DEFAULT_BUDGET_MS * 1_000_000L);
+
+    private long tick;
+    private long overrunTicks;
+    private long lastOverrunReport = -OVERRUN_REPORT_INTERVAL;
+
+    /**
+     * Adds {@code task}, picking its phase if it was declared with {@link #AUTO_PHASE}.
+     */
+    public synchronized void add(Task task) {
+        if (task.phase == AUTO_PHASE) {
+            task.phase = leastLoadedPhase(task.period);
+        }
+        task.nextRun = alignedAfter(tick - 1, task);
+
+        List<Task> updated = new ArrayList<>(Arrays.asList(tasks));
+        updated.add(task);
+        // Stable sort: within a priority, tasks run in the order they were added
+        updated.sort(Comparator.comparing(t -> t.priority));
+        tasks = updated.toArray(NO_TASKS);
+    }
+
+    public synchronized void remove(Task task) {
+        List<Task> updated = new ArrayList<>(Arrays.asList(tasks));
+        if (updated.remove(task)) {
+            tasks = updated.toArray(NO_TASKS);
+        }
+    }
+
+    /**
+     * Runs the tasks due this tick. Called once per client tick from the client thread.
+     */
+    public void tick() {
+        long now = tick++;
+        long budget = budgetNanos;
+        long spent = 0;
+
+        for (Task task : tasks) {
+            if (now < task.nextRun) continue;
+
+            // Kept aligned while the owner is off, only ticks lost to the budget count towards overdue
+            if (!task.owner.isEnabled()) {
+                task.nextRun = alignedAfter(now, task);
+                continue;
+            }
+
+            boolean overdue = now - task.nextRun >= MAX_DEFERRED_TICKS;
+            if (task.priority != Priority.HIGH && !overdue && spent + task.averageNanos > budget) {
+                task.deferrals++;
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                task.action.run();
+            } catch (Exception e) {
+                System.err.println("Error in scheduled task " + task.getName() + ": " + e.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            spent += elapsed;
+            task.record(elapsed);
+            if (ModuleProfiler.isEnabled()) {
+                ModuleProfiler.getInstance().record(task.owner.getName(), ModuleProfiler.Phase.TICK, elapsed);
+            }
+            task.nextRun = alignedAfter(now, task);
+        }
+
+        if (spent > budget) {
+            overrunTicks++;
+            if (now - lastOverrunReport >= OVERRUN_REPORT_INTERVAL) {
+                lastOverrunReport = now;
+                System.err.println("[TickScheduler] Tick budget exceeded: " + String.format("%.2f", spent / 1_000_000.0)
+                        + " ms of " + String.format("%.2f", budget / 1_000_000.0) + " ms (" + overrunTicks + " overruns so far)");
+            }
+        }
+    }
+
+    public void setBudgetMillis(double millis) {
+        budgetNanos = (long) (millis * 1_000_000L);
+    }
+
+    public double getBudgetMillis() {
+        return budgetNanos / 1_000_000.0;
+    }
+
+    public long getOverrunTicks() {
+        return overrunTicks;
+    }
+
+    public List<Task> getTasks() {
+        return List.of(tasks);
+    }
+
+    private int leastLoadedPhase(int period) {
+        int bestPhase = 0;
+        double bestLoad = Double.MAX_VALUE;
+
+        for (int phase = 0; phase < period; phase++) {
+            double load = 0;
+            for (Task other : tasks) {
+                if (Math.floorMod(phase - other.phase, other.period) == 0) {
+                    load += other.averageNanos;
+                }
+            }
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestPhase = phase;
+            }
+        }
+        return bestPhase;
+    }
+
+    // First tick after `after` that falls on the task's phase
+    private static long alignedAfter(long after, Task task) {
+        long next = after + 1;
+        return next + Math.floorMod(task.phase - next, task.period);
+    }
+
+    /**
+     * A unit of periodic work owned by a module. It only runs while its owner is enabled.
+     */
+    public static final class Task {
+        private final Module owner;
+        private final String name;
+        private final int period;
+        private final Priority priority;
+        private final Runnable action;
+
+        private int phase;
+        private long nextRun;
+        private long averageNanos;
+        private long maxNanos;
+        private long runs;
+        private long deferrals;
+
+        public Task(Module owner, String name, int period, int phase, double estimatedCostMs, Priority priority, Runnable action) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Task period must be at least one tick: " + period);
+            }
+            this.owner = owner;
+            this.name = name;
+            this.period = period;
+            this.phase = phase == AUTO_PHASE ? AUTO_PHASE : Math.floorMod(phase, period);
+            this.priority = priority;
+            this.action = action;
+            this.averageNanos = (long) (estimatedCostMs * 1_000_000L);
+        }
+
+        // Exponential moving average, so the budget check follows the real cost of the task
+        private void record(long nanos) {
+            averageNanos += (nanos - averageNanos) / 8;
+            maxNanos = Math.max(maxNanos, nanos);
+            runs++;
+        }
+
+        public Module getOwner() {
+            return owner;
+        }
+
+        public String getName() {
+            return owner.getName() + "/" + name;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public int getPhase() {
+            return phase;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public double getAverageMillis() {
+            return averageNanos / 1_000_000.0;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getDeferrals() {
+            return deferrals;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.amberclient.utils.renderer;
+
+import com.amberclient.modules.combat.Hitbox;
+import com.amberclient.utils.entity.EntityIndex;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.render.Camera;
+import net.minecraft.client.render.Frustum;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix4f;
+
+/**
+ * Draws the expanded hitboxes of the Hitbox module over the vanilla hitbox debug renderer.
+ *
+ * Only entities within {@link Hitbox#EXPANSION_RANGE} have a hitbox that differs from the vanilla one,
+ * so no other entity is looked at. Those are culled against the frustum before their expansion is
+ * fetched (it is computed at most once per tick, see {@link Hitbox#getExpansion}). Vertices are written
+ * relative to the camera into a single line buffer, without any per-entity matrix push.
+ */
+public final class HitboxRenderer {
+    // Expansions are clamped to this on each side
+    private static final double MAX_EXPANSION = 2.0;
+    private static final float RED = 1.0f, GREEN = 0.5f, BLUE = 0.0f, ALPHA = 0.7f;
+
+    private HitboxRenderer() {
+    }
+
+    public static void render(Camera camera, Matrix4f positionMatrix, Matrix4f projectionMatrix) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        ClientPlayerEntity player = client.player;
+        Hitbox hitbox = Hitbox.getInstance();
+        if (player == null || hitbox == null) return;
+
+        Vec3d cameraPos = camera.getPos();
+        Frustum frustum = new Frustum(positionMatrix, projectionMatrix);
+        frustum.setPosition(cameraPos.x, cameraPos.y, cameraPos.z);
+
+        VertexConsumerProvider.Immediate immediate = client.getBufferBuilders().getEntityVertexConsumers();
+        VertexConsumer lines = null;
+
+        for (Entity entity : EntityIndex.getInstance().inRadius(player.getPos(), Hitbox.EXPANSION_RANGE)) {
+            if (entity == player) continue;
+
+            Box box = entity.getBoundingBox();
+            if (!frustum.isVisible(box.expand(MAX_EXPANSION))) continue;
+
+            Hitbox.Expansion expansion = hitbox.getExpansion(entity);
+            if (expansion == null) continue;
+
+            if (lines == null) {
+                lines = immediate.getBuffer(RenderLayer.getLines());
+            }
+            drawBox(lines, positionMatrix, expansion.apply(box), cameraPos);
+        }
+
+        if (lines != null) {
+            immediate.draw();
+        }
+    }
+
+    private static void drawBox(VertexConsumer lines, Matrix4f matrix, Box box, Vec3d cameraPos) {
+        float minX = (float) (box.minX - cameraPos.x), minY = (float) (box.minY - cameraPos.y), minZ = (float) (box.minZ - cameraPos.z);
+        float maxX = (float) (box.maxX - cameraPos.x), maxY = (float) (box.maxY - cameraPos.y), maxZ = (float) (box.maxZ - cameraPos.z);
+
+        // Bottom face
+        line(lines, matrix, minX, minY, minZ, maxX, minY, minZ);
+        line(lines, matrix, maxX, minY, minZ, maxX, minY, maxZ);
+        line(lines, matrix, maxX, minY, maxZ, minX, minY, maxZ);
+        line(lines, matrix, minX, minY, maxZ, minX, minY, minZ);
+
+        // Top face
+        line(lines, matrix, minX, maxY, minZ, maxX, maxY, minZ);
+        line(lines, matrix, maxX, maxY, minZ, maxX, maxY, maxZ);
+        line(lines, matrix, maxX, maxY, maxZ, minX, maxY, maxZ);
+        line(lines, matrix, minX, maxY, maxZ, minX, maxY, minZ);
+
+        // Vertical edges
+        line(lines, matrix, minX, minY, minZ, minX, maxY, minZ);
+        line(lines, matrix, maxX, minY, minZ, maxX, maxY, minZ);
+        line(lines, matrix, maxX, minY, maxZ, maxX, maxY, maxZ);
+        line(lines, matrix, minX, minY, maxZ, minX, maxY, maxZ);
+    }
+
+    private static void line(VertexConsumer lines, Matrix4f matrix, float x1, float y1, float z1, float x2, float y2, float z2) {
+        lines.vertex(matrix, x1, y1, z1).color(RED, GREEN, BLUE, ALPHA).normal(0, 1, 0);
+        lines.vertex(matrix, x2, y2, z2).color(RED, GREEN, BLUE, ALPHA).normal(0, 1, 0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.amberclient.utils.renderer;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * The prepared lines of an ESP nametag: name and health as {@link OrderedText} with their widths.
+ *
+ * Layouts are cached per entity id and only rebuilt when the name, health or max health changes,
+ * so a steady nametag costs no string building nor text measuring per frame.
+ * Render thread only.
+ */
+public final class NametagLayout {
+    private static final Int2ObjectOpenHashMap<NametagLayout> CACHE = new Int2ObjectOpenHashMap<>();
+
+    // Ids of despawned entities are never looked up again, drop everything past this
+    private static final int MAX_CACHED = 512;
+
+    public static final int LINE_HEIGHT = 10;
+
+    private final Object nameSource;
+    private final int health;
+    private final int maxHealth;
+
+    public final OrderedText name;
+    public final OrderedText healthText;
+    public final int nameWidth;
+    public final int healthWidth;
+    public final int width;
+
+    private NametagLayout(Object nameSource, int health, int maxHealth, String name, String healthText, ToIntFunction<OrderedText> widthOf) {
+        this.nameSource = nameSource;
+        this.health = health;
+        this.maxHealth = maxHealth;
+        this.name = Text.literal(name).asOrderedText();
+        this.healthText = Text.literal(healthText).asOrderedText();
+        this.nameWidth = widthOf.applyAsInt(this.name);
+        this.healthWidth = widthOf.applyAsInt(this.healthText);
+        this.width = Math.max(nameWidth, healthWidth);
+    }
+
+    /**
+     * @param nameSource The {@link Text} or {@link String} the name comes from, only converted when the layout is rebuilt
+     */
+    public static NametagLayout get(int entityId, Object nameSource, int health, int maxHealth, TextRenderer textRenderer) {
+        NametagLayout layout = cached(entityId, nameSource, health, maxHealth);
+        // The width function is only bound on a miss, a hit allocates nothing
+        return layout != null ? layout : build(entityId, nameSource, health, maxHealth, textRenderer::getWidth);
+    }
+
+    /**
+     * Same as {@link #get(int, Object, int, int, TextRenderer)}, with the text measured by {@code widthOf}.
+     */
+    static NametagLayout get(int entityId, Object nameSource, int health, int maxHealth, ToIntFunction<OrderedText> widthOf) {
+        NametagLayout layout = cached(entityId, nameSource, health, maxHealth);
+        return layout != null ? layout : build(entityId, nameSource, health, maxHealth, widthOf);
+    }
+
+    private static NametagLayout cached(int entityId, Object nameSource, int health, int maxHealth) {
+        NametagLayout layout = CACHE.get(entityId);
+        if (layout != null && layout.health == health && layout.maxHealth == maxHealth && Objects.equals(layout.nameSource, nameSource)) {
+            return layout;
+        }
+        return null;
+    }
+
+    private static NametagLayout build(int entityId, Object nameSource, int health, int maxHealth, ToIntFunction<OrderedText> widthOf) {
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+
+        String name = nameSource instanceof Text text ? text.getString() : String.valueOf(nameSource);
+        NametagLayout layout = new NametagLayout(nameSource, health, maxHealth, name, "HP: " + health + "/" + maxHealth, widthOf);
+        CACHE.put(entityId, layout);
+        return layout;
+    }
+
+    /**
+     * Layout for a render state whose entity is unknown. Rare, so it is not cached.
+     */
+    public static NametagLayout unknown(String name, TextRenderer textRenderer) {
+        return new NametagLayout(name, -1, -1, name, "HP: Unknown", textRenderer::getWidth);
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    public int getHeight() {
+        return 2 * LINE_HEIGHT;
+    }
+}
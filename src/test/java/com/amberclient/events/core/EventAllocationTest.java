@@ -0,0 +1,108 @@
+package com.amberclient.events.core;
+
+import com.amberclient.events.player.PreVelocityEvent;
+import com.amberclient.events.player.PreVelocityListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Posting on the synchronous path must not allocate: the dispatch array is a published snapshot,
+ * pooled events are reused and interface listeners are adapted once at subscription.
+ * Measured with the allocation counter of the posting thread around a warmed-up loop.
+ */
+class EventAllocationTest {
+    private static final int WARMUP = 200_000;
+    private static final int POSTS = 100_000;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private EventManager eventManager;
+
+    static final class PlainEvent {
+    }
+
+    static final class NobodyListensEvent {
+    }
+
+    static final class Listener implements PreVelocityListener {
+        int plainEvents;
+        int velocityEvents;
+        int adaptedVelocityEvents;
+
+        @EventListener
+        void onPlain(PlainEvent event) {
+            plainEvents++;
+        }
+
+        @EventListener(priority = 10)
+        void onVelocity(PreVelocityEvent event) {
+            velocityEvents++;
+        }
+
+        @Override
+        public void onPreVelocity(PreVelocityEvent event) {
+            adaptedVelocityEvents++;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counter not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // The first read of the counter may itself allocate, keep that out of the measurements
+        threads.getCurrentThreadAllocatedBytes();
+        eventManager = new EventManager();
+    }
+
+    @Test
+    void plainEventDoesNotAllocate() {
+        Listener listener = new Listener();
+        eventManager.register(listener);
+        PlainEvent event = new PlainEvent();
+
+        assertEquals(0, allocatedBytes(() -> eventManager.post(event)));
+        assertEquals(WARMUP + POSTS, listener.plainEvents);
+    }
+
+    @Test
+    void pooledEventDoesNotAllocate() {
+        Listener listener = new Listener();
+        eventManager.register(listener);
+        eventManager.add(PreVelocityListener.class, listener);
+
+        assertEquals(0, allocatedBytes(() -> {
+            PreVelocityEvent event = PreVelocityEvent.acquire(0.1, 0.2, 0.3);
+            try {
+                eventManager.post(event);
+            } finally {
+                PreVelocityEvent.release(event);
+            }
+        }));
+        assertEquals(WARMUP + POSTS, listener.velocityEvents);
+        assertEquals(WARMUP + POSTS, listener.adaptedVelocityEvents);
+    }
+
+    @Test
+    void eventWithoutListenersDoesNotAllocate() {
+        eventManager.register(new Listener());
+        NobodyListensEvent event = new NobodyListensEvent();
+
+        assertEquals(0, allocatedBytes(() -> eventManager.post(event)));
+    }
+
+    private long allocatedBytes(Runnable post) {
+        for (int i = 0; i < WARMUP; i++) {
+            post.run();
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < POSTS; i++) {
+            post.run();
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
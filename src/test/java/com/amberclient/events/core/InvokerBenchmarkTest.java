@@ -0,0 +1,77 @@
+package com.amberclient.events.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a generated {@link EventInvoker} with {@link Method#invoke} on the same one-parameter listener.
+ * Timings are the best of several rounds, after a warm-up long enough for both paths to be compiled.
+ */
+class InvokerBenchmarkTest {
+    private static final int CALLS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    static final class Event {
+        int value = 1;
+    }
+
+    static final class Listener {
+        long sum;
+
+        @EventListener
+        void onEvent(Event event) {
+            sum += event.value;
+        }
+    }
+
+    @Test
+    void generatedInvokerIsBoundDirectly() throws Exception {
+        Listener listener = new Listener();
+        EventInvoker invoker = EventInvoker.of(listener, Listener.class.getDeclaredMethod("onEvent", Event.class));
+
+        // Lambdas spun for the listener are nestmates of its class, the reflective fallback belongs to InvokerFactory
+        assertTrue(invoker.getClass().getName().startsWith(Listener.class.getName() + "$$Lambda"),
+                "Fell back to the reflective invoker: " + invoker.getClass().getName());
+
+        invoker.invoke(new Event());
+        assertEquals(1, listener.sum);
+    }
+
+    @Test
+    void generatedInvokerBeatsMethodInvoke() throws Exception {
+        Method method = Listener.class.getDeclaredMethod("onEvent", Event.class);
+        method.setAccessible(true);
+
+        Listener direct = new Listener();
+        Listener reflective = new Listener();
+        EventInvoker invoker = EventInvoker.of(direct, method);
+        Event event = new Event();
+
+        long bestDirect = Long.MAX_VALUE;
+        long bestReflective = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                invoker.invoke(event);
+            }
+            bestDirect = Math.min(bestDirect, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                method.invoke(reflective, event);
+            }
+            bestReflective = Math.min(bestReflective, System.nanoTime() - start);
+        }
+
+        System.out.printf("EventInvoker: %.2f ns/call, Method.invoke: %.2f ns/call%n",
+                (double) bestDirect / CALLS, (double) bestReflective / CALLS);
+
+        assertEquals((long) ROUNDS * CALLS, direct.sum);
+        assertEquals((long) ROUNDS * CALLS, reflective.sum);
+        assertTrue(bestDirect < bestReflective, "Generated invoker was not faster than Method.invoke");
+    }
+}
@@ -0,0 +1,81 @@
+package com.amberclient.modules.render
+
+import org.joml.Matrix4f
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Test
+import java.lang.management.ManagementFactory
+
+/**
+ * Times one frame of the Tracers snapshot for 500 entities: recording the points, then projecting
+ * them for the OFFSCREEN and CURSOR origins. The EntityIndex query of Tracers.capture and the GL
+ * upload and draw need a running client and are not covered here.
+ */
+class TracersSnapshotTest {
+
+    private val modelView = Matrix4f()
+    private val projection = Matrix4f().setPerspective(Math.toRadians(70.0).toFloat(), WIDTH / HEIGHT, 0.05f, 1000.0f)
+
+    // Camera-relative entity centers on a ring around the player, half of them behind the camera
+    private val entityXs = DoubleArray(ENTITIES) { i -> Math.cos((i + 0.5) * Math.PI * 2 / ENTITIES) * (8 + i % 64) }
+    private val entityYs = DoubleArray(ENTITIES) { i -> (i % 7) - 3.0 }
+    private val entityZs = DoubleArray(ENTITIES) { i -> Math.sin((i + 0.5) * Math.PI * 2 / ENTITIES) * (8 + i % 64) }
+
+    private fun frame(snapshot: Tracers.EntitySnapshot) {
+        snapshot.clear()
+        for (i in 0 until ENTITIES) {
+            snapshot.add(entityXs[i], entityYs[i], entityZs[i], -1)
+        }
+        snapshot.projectToScreen(modelView, projection, WIDTH, HEIGHT)
+    }
+
+    @Test
+    fun `points in front of the camera land on screen, the others are dropped`() {
+        val snapshot = Tracers.EntitySnapshot()
+        snapshot.add(0.0, 0.0, -10.0, 1)
+        snapshot.add(0.0, 0.0, 10.0, 2)
+        snapshot.add(5.0, 0.0, -10.0, 3)
+
+        snapshot.projectToScreen(modelView, projection, WIDTH, HEIGHT)
+
+        assertEquals(2, snapshot.size)
+        assertEquals(WIDTH / 2.0, snapshot.xs[0], 0.01)
+        assertEquals(HEIGHT / 2.0, snapshot.ys[0], 0.01)
+        assertEquals(1, snapshot.colors[0])
+        assertEquals(3, snapshot.colors[1])
+    }
+
+    @Test
+    fun `a steady frame of 500 entities does not allocate`() {
+        val threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        assumeTrue(threads.isThreadAllocatedMemorySupported, "Thread allocation counter not supported")
+        threads.isThreadAllocatedMemoryEnabled = true
+        threads.currentThreadAllocatedBytes
+
+        val snapshot = Tracers.EntitySnapshot()
+        repeat(WARMUP) { frame(snapshot) }
+
+        var best = Long.MAX_VALUE
+        val before = threads.currentThreadAllocatedBytes
+        repeat(ROUNDS) {
+            val start = System.nanoTime()
+            repeat(FRAMES) { frame(snapshot) }
+            best = minOf(best, System.nanoTime() - start)
+        }
+        val allocated = threads.currentThreadAllocatedBytes - before
+
+        println(String.format("Tracers snapshot: %.2f us/frame for %d entities", best / 1000.0 / FRAMES, ENTITIES))
+
+        assertEquals(0, allocated)
+        assertEquals(ENTITIES / 2, snapshot.size)
+    }
+
+    companion object {
+        private const val ENTITIES = 500
+        private const val WARMUP = 20_000
+        private const val ROUNDS = 5
+        private const val FRAMES = 2_000
+        private const val WIDTH = 960.0f
+        private const val HEIGHT = 540.0f
+    }
+}
@@ -0,0 +1,46 @@
+package com.amberclient.modules.render.xray
+
+import net.minecraft.util.math.Box
+import net.minecraft.util.math.Vec3d
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class OutlineCullingTest {
+
+    // Default Chunk Radius setting
+    private val maxDistance = OutlineCulling.maxDistance(1)
+    private val camera = Vec3d(8.0, 64.0, 8.0)
+
+    @Test
+    fun `deepslate results below the camera are kept`() {
+        val sameChunk = Box(2.0, -58.0, 3.0, 6.0, -54.0, 9.0)
+        val cornerChunk = Box(16.0, -60.0, 16.0, 32.0, -50.0, 32.0)
+
+        assertTrue(OutlineCulling.isVisible(sameChunk, camera, maxDistance, null))
+        assertTrue(OutlineCulling.isVisible(cornerChunk, camera, maxDistance, null))
+    }
+
+    @Test
+    fun `results at the build limit are kept`() {
+        val top = Box(-16.0, 300.0, -16.0, 0.0, 319.0, 0.0)
+
+        assertTrue(OutlineCulling.isVisible(top, camera, maxDistance, null))
+    }
+
+    @Test
+    fun `chunks past the scan radius are culled`() {
+        val far = Box(80.0, 10.0, 0.0, 96.0, 20.0, 16.0)
+
+        assertFalse(OutlineCulling.isVisible(far, camera, maxDistance, null))
+    }
+
+    @Test
+    fun `distance ignores the vertical axis`() {
+        val bounds = Box(0.0, -64.0, 0.0, 16.0, -60.0, 16.0)
+
+        assertEquals(0.0, OutlineCulling.horizontalSquaredDistanceTo(bounds, camera))
+        assertEquals(144.0, OutlineCulling.horizontalSquaredDistanceTo(bounds, Vec3d(28.0, 64.0, 8.0)))
+    }
+}
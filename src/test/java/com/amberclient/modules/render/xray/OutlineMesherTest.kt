@@ -0,0 +1,75 @@
+package com.amberclient.modules.render.xray
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap
+import net.minecraft.util.math.BlockPos
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class OutlineMesherTest {
+
+    private val color = 0xFFFF0000.toInt()
+
+    @Test
+    fun `empty set has no lines`() {
+        assertEquals(0, count())
+    }
+
+    @Test
+    fun `single cube has its twelve edges`() {
+        assertEquals(12, count(intArrayOf(0, 0, 0)))
+    }
+
+    @Test
+    fun `bar merges collinear edges into a box outline`() {
+        assertEquals(12, count(intArrayOf(0, 0, 0), intArrayOf(1, 0, 0), intArrayOf(2, 0, 0)))
+    }
+
+    @Test
+    fun `solid cube has the outline of one box`() {
+        val cells = ArrayList<IntArray>()
+        for (x in 0..1) for (y in 0..1) for (z in 0..1) cells.add(intArrayOf(x, y, z))
+
+        assertEquals(12, count(*cells.toTypedArray()))
+    }
+
+    @Test
+    fun `L shape outlines its concave corner`() {
+        assertEquals(18, count(intArrayOf(0, 0, 0), intArrayOf(1, 0, 0), intArrayOf(0, 1, 0)))
+    }
+
+    @Test
+    fun `cubes touching along an edge keep the shared edge`() {
+        // 7 edges along Z with one shared, the edges along X and Y that meet at the contact are merged
+        assertEquals(19, count(intArrayOf(0, 0, 0), intArrayOf(1, 1, 0)))
+    }
+
+    @Test
+    fun `returned count matches emitted lines and origin is subtracted`() {
+        val blocks = outlineSet(intArrayOf(35, 12, -20))
+        var emitted = 0
+        var minX = Float.MAX_VALUE
+        var minZ = Float.MAX_VALUE
+
+        val lines = OutlineMesher.mesh(blocks, 32, -32) { x1, _, z1, x2, _, z2, lineColor ->
+            emitted++
+            minX = minOf(minX, x1, x2)
+            minZ = minOf(minZ, z1, z2)
+            assertEquals(color, lineColor)
+        }
+
+        assertEquals(emitted, lines)
+        assertEquals(3.0f, minX)
+        assertEquals(12.0f, minZ)
+    }
+
+    private fun count(vararg cells: IntArray): Int =
+        OutlineMesher.mesh(outlineSet(*cells), 0, 0) { _, _, _, _, _, _, _ -> }
+
+    private fun outlineSet(vararg cells: IntArray): OutlineSet {
+        val blocks = Long2IntOpenHashMap()
+        for (cell in cells) {
+            blocks.put(BlockPos.asLong(cell[0], cell[1], cell[2]), color)
+        }
+        return OutlineSet.of(blocks)
+    }
+}
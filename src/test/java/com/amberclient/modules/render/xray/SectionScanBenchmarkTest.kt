@@ -0,0 +1,123 @@
+package com.amberclient.modules.render.xray
+
+import com.amberclient.utils.core.Color
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap
+import net.minecraft.Bootstrap
+import net.minecraft.SharedConstants
+import net.minecraft.block.Block
+import net.minecraft.block.BlockState
+import net.minecraft.block.Blocks
+import net.minecraft.util.math.ChunkSectionPos
+import net.minecraft.world.chunk.PalettedContainer
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+
+/**
+ * Times the palette path of an Xray scan against reading every block, on one synthetic overworld
+ * column: deepslate and stone below sea level, air above, and a handful of diamond ores in two sections.
+ */
+class SectionScanBenchmarkTest {
+
+    private val air: BlockState = Blocks.AIR.defaultState
+    private val targets = TargetBlocks(
+        BlockStore.Snapshot(1, setOf(BlockSearchEntry(Blocks.DIAMOND_ORE.defaultState, Color(0, 255, 255, 255), true))),
+        false
+    )
+
+    // Section key -> container, 24 sections from y = -64 to 320
+    private val column = LinkedHashMap<Long, PalettedContainer<BlockState>>().apply {
+        for (sectionY in -4 until 20) {
+            val fill = when {
+                sectionY < 0 -> Blocks.DEEPSLATE.defaultState
+                sectionY < 4 -> Blocks.STONE.defaultState
+                else -> air
+            }
+            val container = PalettedContainer(Block.STATE_IDS, air, PalettedContainer.PaletteProvider.BLOCK_STATE)
+            if (fill != air) {
+                for (y in 0 until 16) for (z in 0 until 16) for (x in 0 until 16) container.set(x, y, z, fill)
+            }
+            put(ChunkSectionPos.asLong(0, sectionY, 0), container)
+        }
+
+        get(ChunkSectionPos.asLong(0, -4, 0))!!.apply {
+            set(3, 5, 7, Blocks.DIAMOND_ORE.defaultState)
+            set(4, 5, 7, Blocks.DIAMOND_ORE.defaultState)
+            set(4, 6, 7, Blocks.DIAMOND_ORE.defaultState)
+        }
+        get(ChunkSectionPos.asLong(0, -3, 0))!!.apply {
+            set(10, 0, 2, Blocks.DIAMOND_ORE.defaultState)
+            set(11, 0, 2, Blocks.DIAMOND_ORE.defaultState)
+        }
+    }
+
+    private val lookup = BlockStateLookup { x, y, z ->
+        column[ChunkSectionPos.asLong(x shr 4, y shr 4, z shr 4)]?.get(x and 15, y and 15, z and 15) ?: air
+    }
+
+    @Test
+    fun `palette scan finds the same blocks as a full read, faster`() {
+        var paletteResult = Long2IntOpenHashMap()
+        var fullResult = Long2IntOpenHashMap()
+        var bestPalette = Long.MAX_VALUE
+        var bestFull = Long.MAX_VALUE
+
+        repeat(ROUNDS) {
+            var start = System.nanoTime()
+            repeat(SCANS) { paletteResult = paletteScan() }
+            bestPalette = minOf(bestPalette, System.nanoTime() - start)
+
+            start = System.nanoTime()
+            repeat(SCANS) { fullResult = fullScan() }
+            bestFull = minOf(bestFull, System.nanoTime() - start)
+        }
+
+        println(String.format("Palette scan: %.1f us/column, full read: %.1f us/column (%.1fx)",
+            bestPalette / 1000.0 / SCANS, bestFull / 1000.0 / SCANS, bestFull.toDouble() / bestPalette))
+
+        assertEquals(5, paletteResult.size)
+        assertEquals(fullResult, paletteResult)
+        assertTrue(bestPalette < bestFull, "Palette scan was not faster than reading every block")
+    }
+
+    @Test
+    fun `palette check skips sections without targets`() {
+        val withTargets = column.filterValues { SectionSnapshot.containsTarget(it, targets) }.keys
+            .map { ChunkSectionPos.unpackY(it) }
+
+        assertEquals(listOf(-4, -3), withTargets)
+    }
+
+    // What a scan does: palette check first, then only the matching sections are read
+    private fun paletteScan(): Long2IntOpenHashMap {
+        val found = Long2IntOpenHashMap()
+        for ((key, container) in column) {
+            if (SectionSnapshot.containsTarget(container, targets)) {
+                ScanTask.scanSection(container, key, targets, false, lookup, found)
+            }
+        }
+        return found
+    }
+
+    // The previous approach in spirit: every block of every section is read and matched
+    private fun fullScan(): Long2IntOpenHashMap {
+        val found = Long2IntOpenHashMap()
+        for ((key, container) in column) {
+            ScanTask.scanSection(container, key, targets, false, lookup, found)
+        }
+        return found
+    }
+
+    companion object {
+        private const val ROUNDS = 5
+        private const val SCANS = 50
+
+        @BeforeAll
+        @JvmStatic
+        fun bootstrap() {
+            SharedConstants.createGameVersion()
+            Bootstrap.initialize()
+        }
+    }
+}
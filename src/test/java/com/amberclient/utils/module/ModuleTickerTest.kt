@@ -0,0 +1,112 @@
+package com.amberclient.utils.module
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class ModuleTickerTest {
+
+    private class CountingModule(name: String, override val tickPhase: TickPhase, enabledAtStart: Boolean) :
+        Module(name, "Counts its ticks", ModuleCategory.MISC) {
+
+        var ticks = 0
+
+        init {
+            enabled = enabledAtStart
+        }
+
+        override fun onTick() {
+            ticks++
+        }
+
+        // Module.enable()/disable() do this, then ModuleManager.onModuleToggled rebuilds the ticker
+        fun setEnabled(ticker: ModuleTicker, value: Boolean) {
+            enabled = value
+            ticker.rebuild()
+        }
+    }
+
+    private val ticker = ModuleTicker()
+
+    // One client tick: the PRE phase at the start of MinecraftClient.tick, POST at its end
+    private fun clientTick() {
+        ticker.tick(TickPhase.PRE)
+        ticker.tick(TickPhase.POST)
+    }
+
+    @Test
+    fun `modules enabled at registration tick once per client tick in their phase`() {
+        val pre = CountingModule("Pre", TickPhase.PRE, true)
+        val post = CountingModule("Post", TickPhase.POST, true)
+        ticker.register(pre)
+        ticker.register(post)
+
+        for (tick in 0 until TICKS) {
+            ticker.tick(TickPhase.PRE)
+            assertEquals(tick + 1, pre.ticks)
+            assertEquals(tick, post.ticks)
+
+            ticker.tick(TickPhase.POST)
+            assertEquals(tick + 1, pre.ticks)
+            assertEquals(tick + 1, post.ticks)
+        }
+
+        assertEquals(listOf(pre, post), ticker.getEnabledModules())
+    }
+
+    @Test
+    fun `disabled modules are not ticked`() {
+        val pre = CountingModule("Pre", TickPhase.PRE, false)
+        val post = CountingModule("Post", TickPhase.POST, false)
+        ticker.register(pre)
+        ticker.register(post)
+
+        repeat(TICKS) { clientTick() }
+
+        assertEquals(0, pre.ticks)
+        assertEquals(0, post.ticks)
+        assertTrue(ticker.getEnabledModules().isEmpty())
+    }
+
+    @Test
+    fun `toggling mid-run ticks only while enabled`() {
+        val pre = CountingModule("Pre", TickPhase.PRE, false)
+        val post = CountingModule("Post", TickPhase.POST, true)
+        val bystander = CountingModule("Bystander", TickPhase.POST, true)
+        ticker.register(pre)
+        ticker.register(post)
+        ticker.register(bystander)
+
+        for (tick in 0 until TICKS) {
+            when (tick) {
+                10 -> pre.setEnabled(ticker, true)
+                25 -> post.setEnabled(ticker, false)
+                30 -> pre.setEnabled(ticker, false)
+                40 -> post.setEnabled(ticker, true)
+            }
+            clientTick()
+        }
+
+        assertEquals(30 - 10, pre.ticks)
+        assertEquals(25 + (TICKS - 40), post.ticks)
+        assertEquals(TICKS, bystander.ticks)
+        assertFalse(pre in ticker.getEnabledModules())
+    }
+
+    @Test
+    fun `enabling a module twice does not tick it twice`() {
+        val post = CountingModule("Post", TickPhase.POST, true)
+        ticker.register(post)
+        post.setEnabled(ticker, true)
+        ticker.rebuild()
+
+        repeat(TICKS) { clientTick() }
+
+        assertEquals(TICKS, post.ticks)
+    }
+
+    companion object {
+        private const val TICKS = 50
+    }
+}
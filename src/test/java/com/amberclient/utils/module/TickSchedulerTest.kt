@@ -0,0 +1,51 @@
+package com.amberclient.utils.module
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class TickSchedulerTest {
+
+    private class OwnerModule(enabledAtStart: Boolean) : Module("Owner", "Owns scheduled tasks", ModuleCategory.MISC) {
+        init {
+            enabled = enabledAtStart
+        }
+
+        fun setEnabled(value: Boolean) {
+            enabled = value
+        }
+    }
+
+    @Test
+    fun `tasks of a re-enabled module are not overdue`() {
+        val scheduler = TickScheduler()
+        val owner = OwnerModule(false)
+        var runs = 0
+
+        // Each task alone is estimated above the budget, so only overdue tasks may run
+        repeat(3) { i ->
+            scheduler.add(TickScheduler.Task(owner, "Task $i", 1, 0, 3.0, TickScheduler.Priority.NORMAL) { runs++ })
+        }
+
+        repeat(100) { scheduler.tick() }
+        owner.setEnabled(true)
+        scheduler.tick()
+
+        assertEquals(0, runs)
+        assertEquals(listOf(1L, 1L, 1L), scheduler.tasks.map { it.deferrals })
+    }
+
+    @Test
+    fun `deferred tasks run once they waited the maximum`() {
+        val scheduler = TickScheduler()
+        val owner = OwnerModule(true)
+        var runs = 0
+
+        scheduler.add(TickScheduler.Task(owner, "Task", 1, 0, 3.0, TickScheduler.Priority.NORMAL) { runs++ })
+
+        repeat(20) { scheduler.tick() }
+        assertEquals(0, runs)
+
+        scheduler.tick()
+        assertEquals(1, runs)
+    }
+}
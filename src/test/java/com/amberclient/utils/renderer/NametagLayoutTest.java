@@ -0,0 +1,130 @@
+package com.amberclient.utils.renderer;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Times {@link NametagLayout#get} for 100 tagged entities, with steady tags (cache hits) and with
+ * health changing every frame (misses). Text is measured by a fixed-advance width function, as the
+ * real {@code TextRenderer} needs the loaded font resources; drawing the tags needs a GL context and
+ * is not covered here.
+ */
+class NametagLayoutTest {
+    private static final int ENTITIES = 100;
+    private static final int WARMUP = 5_000;
+    private static final int ROUNDS = 5;
+    private static final int FRAMES = 2_000;
+
+    private final Text[] names = new Text[ENTITIES];
+    private int measured;
+
+    // Six pixels per code point, close to the default font
+    private final ToIntFunction<OrderedText> widthOf = text -> {
+        measured++;
+        int[] width = {0};
+        text.accept((index, style, codePoint) -> {
+            width[0] += 6;
+            return true;
+        });
+        return width[0];
+    };
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @BeforeEach
+    void setUp() {
+        NametagLayout.clear();
+        for (int i = 0; i < ENTITIES; i++) {
+            names[i] = Text.literal("Zombie " + i);
+        }
+    }
+
+    @Test
+    void hitReturnsTheCachedLayout() {
+        NametagLayout first = NametagLayout.get(1, names[1], 20, 20, widthOf);
+        int measuredOnMiss = measured;
+
+        assertSame(first, NametagLayout.get(1, names[1], 20, 20, widthOf));
+        assertEquals(measuredOnMiss, measured);
+        assertEquals(6 * "HP: 20/20".length(), first.healthWidth);
+        assertEquals(Math.max(first.nameWidth, first.healthWidth), first.width);
+
+        NametagLayout hurt = NametagLayout.get(1, names[1], 19, 20, widthOf);
+        assertNotSame(first, hurt);
+        assertEquals(6 * "HP: 19/20".length(), hurt.healthWidth);
+    }
+
+    @Test
+    void steadyFramesDoNotAllocateAndBeatRebuilding() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counter not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threads.getCurrentThreadAllocatedBytes();
+
+        for (int frame = 0; frame < WARMUP; frame++) {
+            steadyFrame();
+            hurtFrame(frame);
+        }
+        // Back to full health, the measured frames below only hit
+        steadyFrame();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long bestHit = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int frame = 0; frame < FRAMES; frame++) {
+                steadyFrame();
+            }
+            bestHit = Math.min(bestHit, System.nanoTime() - start);
+        }
+        long hitAllocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        long bestMiss = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int frame = 0; frame < FRAMES; frame++) {
+                hurtFrame(frame);
+            }
+            bestMiss = Math.min(bestMiss, System.nanoTime() - start);
+        }
+
+        double hitNs = (double) bestHit / FRAMES / ENTITIES;
+        double missNs = (double) bestMiss / FRAMES / ENTITIES;
+        System.out.printf("NametagLayout.get: hit %.1f ns, miss %.1f ns (%.1fx)%n", hitNs, missNs, missNs / hitNs);
+
+        assertEquals(0, hitAllocated);
+        assertTrue(bestHit < bestMiss, "Cache hits were not faster than rebuilding the layout");
+    }
+
+    private void steadyFrame() {
+        for (int id = 0; id < ENTITIES; id++) {
+            NametagLayout.get(id, names[id], 20, 20, widthOf);
+        }
+    }
+
+    // Every entity's health changes each frame, so every lookup rebuilds its layout
+    private void hurtFrame(int frame) {
+        int health = 1 + frame % 20;
+        for (int id = 0; id < ENTITIES; id++) {
+            NametagLayout.get(id, names[id], health, 20, widthOf);
+        }
+    }
+}